@@ -0,0 +1,59 @@
+import http from "k6/http";
+import { check } from "k6";
+import { Counter } from "k6/metrics";
+
+// Run once per execution mode against the same data and compare the summaries:
+//   k6 run -e MODE=platform api-load-test.js
+//   k6 run -e MODE=virtual api-load-test.js   (backend started with SPRING_PROFILES_ACTIVE=virtual)
+const BASE_URL = __ENV.BASE_URL || "http://152.42.158.2";
+const MODE = __ENV.MODE || "platform";
+const BUYER_ID = __ENV.BUYER_ID || "1";
+
+const shed = new Counter("requests_shed");
+
+export const options = {
+  scenarios: {
+    burst: {
+      executor: "ramping-arrival-rate",
+      startRate: 50,
+      timeUnit: "1s",
+      preAllocatedVUs: 500,
+      maxVUs: 5000,
+      stages: [
+        { duration: "1m", target: 200 },
+        { duration: "2m", target: 1000 },
+        { duration: "1m", target: 2000 },
+        { duration: "1m", target: 0 },
+      ],
+    },
+  },
+  thresholds: {
+    "http_req_duration{expected_response:true}": ["p(95)<500"],
+    http_req_failed: ["rate<0.05"],
+  },
+};
+
+const searches = ["toyota", "honda", "swift", "2018", ""];
+
+export default function () {
+  const pick = Math.random();
+  let res;
+  if (pick < 0.5) {
+    const search = searches[Math.floor(Math.random() * searches.length)];
+    res = http.get(`${BASE_URL}/api/ads?page=0&size=10&search=${search}`, { tags: { endpoint: "ads" } });
+  } else if (pick < 0.8) {
+    res = http.get(`${BASE_URL}/api/ads/feed?size=20`, { tags: { endpoint: "feed" } });
+  } else {
+    res = http.get(`${BASE_URL}/api/realtime-messages/latest/${BUYER_ID}`, { tags: { endpoint: "inbox" } });
+  }
+  if (res.status === 503) {
+    shed.add(1);
+  }
+  check(res, { "status is 200 or shed": (r) => r.status === 200 || r.status === 503 });
+}
+
+export function handleSummary(data) {
+  return {
+    [`load-summary-${MODE}.json`]: JSON.stringify(data, null, 2),
+  };
+}
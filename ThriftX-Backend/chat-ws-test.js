@@ -0,0 +1,50 @@
+import ws from "k6/ws";
+import { check } from "k6";
+import { Counter } from "k6/metrics";
+
+const BASE_URL = __ENV.BASE_URL || "ws://152.42.158.2";
+const HOLD_SECONDS = Number(__ENV.HOLD_SECONDS || 60);
+
+const pushes = new Counter("chat_pushes_received");
+
+export const options = {
+  stages: [
+    { duration: "2m", target: 2000 },
+    { duration: "3m", target: 5000 },
+    { duration: "3m", target: 8000 },
+    { duration: "1m", target: 0 },
+  ],
+  thresholds: {
+    checks: ["rate>0.99"],
+  },
+};
+
+function frame(command, headers) {
+  let out = command + "\n";
+  for (const key in headers) {
+    out += key + ":" + headers[key] + "\n";
+  }
+  return out + "\n\0";
+}
+
+export default function () {
+  const userId = String(__VU);
+  const res = ws.connect(BASE_URL + "/ws/chat", null, function (socket) {
+    socket.on("open", function () {
+      socket.send(frame("CONNECT", { "accept-version": "1.2", "heart-beat": "10000,10000" }));
+      socket.send(frame("SUBSCRIBE", { id: "sub-0", destination: "/topic/messages." + userId }));
+      socket.setInterval(function () {
+        socket.send("\n");
+      }, 10000);
+      socket.setTimeout(function () {
+        socket.close();
+      }, HOLD_SECONDS * 1000);
+    });
+    socket.on("message", function (data) {
+      if (data.startsWith("MESSAGE")) {
+        pushes.add(1);
+      }
+    });
+  });
+  check(res, { "handshake is 101": (r) => r && r.status === 101 });
+}
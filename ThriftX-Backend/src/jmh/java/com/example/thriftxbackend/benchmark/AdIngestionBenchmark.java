@@ -0,0 +1,81 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.dto.VehicleAdResponseDTO;
+import com.example.thriftxbackend.service.VehicleAdService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AdIngestionBenchmark {
+
+    private static final int BATCH = 500;
+
+    private ConfigurableApplicationContext context;
+    private VehicleAdService vehicleAdService;
+    private List<VehicleAdResponseDTO> batch;
+    private VehicleAdResponseDTO single;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of());
+        new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class)).ensureUsers(1000);
+        vehicleAdService = context.getBean(VehicleAdService.class);
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(ad("user" + (1 + i % 20), i));
+        }
+        single = ad("user1", 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public VehicleAdResponseDTO singlePost() {
+        return vehicleAdService.saveAd(single);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int bulkBatch() {
+        return vehicleAdService.saveAds(batch);
+    }
+
+    private static VehicleAdResponseDTO ad(String username, int i) {
+        VehicleAdResponseDTO dto = new VehicleAdResponseDTO();
+        dto.setUsername(username);
+        dto.setTitle("Imported stock " + i);
+        dto.setPrice(250000 + i);
+        dto.setCategory("Category " + (i % BenchmarkDataGenerator.CATEGORIES));
+        dto.setLocation("City " + (i % BenchmarkDataGenerator.LOCATIONS));
+        dto.setYear(2010 + i % 14);
+        dto.setMileage(10000 + i);
+        dto.setDescription("Dealer inventory import");
+        return dto;
+    }
+}
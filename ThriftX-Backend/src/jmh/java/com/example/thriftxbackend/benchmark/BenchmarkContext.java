@@ -0,0 +1,40 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.thriftxbackend.ThriftXBackendApplication;
+
+/**
+ * Boots the application against the benchmark database. Connection settings come from
+ * BENCH_JDBC_URL, BENCH_JDBC_USER and BENCH_JDBC_PASSWORD so they reach forked JMH JVMs.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", env("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/thriftx_bench"));
+        properties.put("spring.datasource.username", env("BENCH_JDBC_USER", "postgres"));
+        properties.put("spring.datasource.password", env("BENCH_JDBC_PASSWORD", "postgres"));
+        properties.put("spring.cache.type", env("BENCH_CACHE_TYPE", "none"));
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ThriftXBackendApplication.class).run(args);
+    }
+
+    static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
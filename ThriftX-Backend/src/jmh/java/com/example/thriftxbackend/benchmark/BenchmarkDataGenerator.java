@@ -0,0 +1,82 @@
+package com.example.thriftxbackend.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.service.ConversationBackfill;
+
+final class BenchmarkDataGenerator {
+
+    static final int CATEGORIES = 20;
+    static final int LOCATIONS = 200;
+    static final String INBOX_USER = "1";
+
+    private final JdbcTemplate jdbc;
+
+    BenchmarkDataGenerator(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    void ensureUsers(int users) {
+        long existing = count("SELECT COUNT(*) FROM users");
+        if (existing < users) {
+            jdbc.update("INSERT INTO users (username, email, password) " +
+                    "SELECT 'user' || g, 'user' || g || '@example.com', 'secret' || g " +
+                    "FROM generate_series(?, ?) g", existing + 1, (long) users);
+        }
+    }
+
+    void ensureAds(int ads) {
+        ensureUsers(1000);
+        long existing = count("SELECT COUNT(*) FROM vehicle_ad");
+        if (existing < ads) {
+            jdbc.update("INSERT INTO vehicle_ad (title, price, description, location, category, image_url, mileage, year, username, user_id) " +
+                    "SELECT (ARRAY['Toyota','Honda','Hyundai','Maruti','Tata','Mahindra','Kia','Ford'])[1 + g % 8] || ' model' || (g % 97), " +
+                    "(g * 7919) % 5000000, 'Well maintained vehicle number ' || g || ', single owner, full service history', " +
+                    "'City ' || (g % " + LOCATIONS + "), 'Category ' || (g % " + CATEGORIES + "), " +
+                    "'https://images.example.com/' || g || '.jpg', g % 300000, 1995 + g % 30, 'user' || (1 + g % 1000), 1 + g % 1000 " +
+                    "FROM generate_series(?, ?) g", existing + 1, (long) ads);
+            jdbc.execute("ANALYZE vehicle_ad");
+        }
+    }
+
+    /**
+     * Places every ad near the centre of its "City n" location, so radius queries around
+     * {@link #cityCenter(int)} hit a realistic cluster.
+     */
+    void ensureCoordinates() {
+        int updated = jdbc.update("UPDATE vehicle_ad SET " +
+                "latitude = 8 + (id % " + LOCATIONS + ") * 37 % " + LOCATIONS + " * 0.11 + ((id * 7919) % 1000 / 1000.0 - 0.5) * 0.5, " +
+                "longitude = 70 + (id % " + LOCATIONS + ") * 91 % " + LOCATIONS + " * 0.1 + ((id * 104729) % 1000 / 1000.0 - 0.5) * 0.5 " +
+                "WHERE latitude IS NULL");
+        if (updated > 0) {
+            jdbc.execute("ANALYZE vehicle_ad");
+        }
+    }
+
+    static double[] cityCenter(int city) {
+        return new double[] {8 + city * 37 % LOCATIONS * 0.11, 70 + city * 91 % LOCATIONS * 0.1};
+    }
+
+    void ensureInbox(int threads, int messagesPerThread, ConversationBackfill backfill) {
+        ensureUsers(threads + 2);
+        long existing = count("SELECT COUNT(*) FROM messages WHERE senderid = '" + INBOX_USER + "' OR receiverid = '" + INBOX_USER + "'");
+        long wanted = (long) threads * messagesPerThread;
+        if (existing < wanted) {
+            jdbc.update("DELETE FROM messages WHERE senderid = ? OR receiverid = ?", INBOX_USER, INBOX_USER);
+            jdbc.update("DELETE FROM conversation WHERE user_id = ? OR counterpart_id = ?", INBOX_USER, INBOX_USER);
+            jdbc.update("INSERT INTO messages (senderid, receiverid, adid, content) " +
+                    "SELECT CASE WHEN g % 2 = 0 THEN '1' ELSE CAST(2 + g / ? AS text) END, " +
+                    "CASE WHEN g % 2 = 0 THEN CAST(2 + g / ? AS text) ELSE '1' END, " +
+                    "CAST(1 + g / ? AS text), 'Is the car still available? offer ' || g " +
+                    "FROM generate_series(0, ? - 1) g",
+                    messagesPerThread, messagesPerThread, messagesPerThread, wanted);
+            jdbc.execute("ANALYZE messages");
+            backfill.backfill();
+        }
+    }
+
+    private long count(String sql) {
+        Long count = jdbc.queryForObject(sql, Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.dto.AdSummaryDTO;
+import com.example.thriftxbackend.service.GeoArea;
+import com.example.thriftxbackend.service.VehicleAdService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoSearchBenchmark {
+
+    @Param({"1000000"})
+    public int ads;
+
+    @Param({"5", "25", "100"})
+    public double radiusKm;
+
+    @Param({"none", "category", "category+price"})
+    public String filters;
+
+    private ConfigurableApplicationContext context;
+    private VehicleAdService vehicleAdService;
+    private GeoArea near;
+    private String category;
+    private Integer minPrice;
+    private Integer maxPrice;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of());
+        BenchmarkDataGenerator generator = new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class));
+        generator.ensureAds(ads);
+        generator.ensureCoordinates();
+        vehicleAdService = context.getBean(VehicleAdService.class);
+        double[] center = BenchmarkDataGenerator.cityCenter(12);
+        near = GeoArea.around(center[0], center[1], radiusKm);
+        category = filters.contains("category") ? "Category 12" : null;
+        minPrice = filters.contains("price") ? 200000 : null;
+        maxPrice = filters.contains("price") ? 800000 : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<AdSummaryDTO> radius() {
+        return vehicleAdService.searchAds(null, category, null, minPrice, maxPrice, near, 0, 10);
+    }
+
+    @Benchmark
+    public Page<AdSummaryDTO> locationText() {
+        return vehicleAdService.searchAds(null, category, "city 12", minPrice, maxPrice, null, 0, 10);
+    }
+}
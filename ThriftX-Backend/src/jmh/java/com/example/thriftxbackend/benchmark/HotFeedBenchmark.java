@@ -0,0 +1,70 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.dto.AdSummaryDTO;
+import com.example.thriftxbackend.service.VehicleAdService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotFeedBenchmark {
+
+    @Param({"1000000"})
+    public int ads;
+
+    @Param({"false", "true"})
+    public boolean hotIndex;
+
+    @Param({"none", "category", "category+price"})
+    public String filters;
+
+    @Param({"0", "5"})
+    public int page;
+
+    private ConfigurableApplicationContext context;
+    private VehicleAdService vehicleAdService;
+    private String category;
+    private Integer minPrice;
+    private Integer maxPrice;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of("thriftx.hot-index.enabled", hotIndex));
+        new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class)).ensureAds(ads);
+        vehicleAdService = context.getBean(VehicleAdService.class);
+        category = filters.contains("category") ? "Category 7" : null;
+        minPrice = filters.contains("price") ? 200000 : null;
+        maxPrice = filters.contains("price") ? 800000 : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<AdSummaryDTO> feedPage() {
+        return vehicleAdService.searchAds(null, category, null, minPrice, maxPrice, null, page, 10);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.dto.AdSummaryDTO;
+import com.example.thriftxbackend.service.UserService;
+import com.example.thriftxbackend.service.VehicleAdService;
+
+/**
+ * Measures search latency while logins saturate the password hashing pool, against the
+ * same search threads running alone.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginStormBenchmark {
+
+    @Param({"100000"})
+    public int ads;
+
+    @Param({"10"})
+    public int bcryptStrength;
+
+    @Param({"1"})
+    public int hashThreads;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private VehicleAdService vehicleAdService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of(
+                "thriftx.auth.bcrypt-strength", bcryptStrength,
+                "thriftx.auth.hash-threads", hashThreads));
+        BenchmarkDataGenerator generator = new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class));
+        generator.ensureUsers(1000);
+        generator.ensureAds(ads);
+        userService = context.getBean(UserService.class);
+        vehicleAdService = context.getBean(VehicleAdService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(2)
+    public boolean login() {
+        int user = ThreadLocalRandom.current().nextInt(1, 1001);
+        return userService.authenticateUser("user" + user, "secret" + user);
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(2)
+    public Page<AdSummaryDTO> searchDuringStorm() {
+        return search();
+    }
+
+    @Benchmark
+    @Group("quiet")
+    @GroupThreads(2)
+    public Page<AdSummaryDTO> searchAlone() {
+        return search();
+    }
+
+    private Page<AdSummaryDTO> search() {
+        return vehicleAdService.searchAds("toyota", "Category 7", null, null, null, null, 0, 10);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.thriftxbackend.dto.MessageDTO;
+import com.example.thriftxbackend.dto.ReadReceiptDTO;
+import com.example.thriftxbackend.entity.Message;
+import com.example.thriftxbackend.service.MessageService;
+import com.example.thriftxbackend.service.ReadReceiptBuffer;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MessageSendBenchmark {
+
+    private static final int BATCH = 50;
+
+    private ConfigurableApplicationContext context;
+    private MessageService messageService;
+    private ReadReceiptBuffer readReceiptBuffer;
+    private MessageDTO single;
+    private List<MessageDTO> batch;
+    private ReadReceiptDTO receipt;
+    private long lastReadId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of("thriftx.chat.read-receipts.flush-ms", "500"));
+        messageService = context.getBean(MessageService.class);
+        readReceiptBuffer = context.getBean(ReadReceiptBuffer.class);
+        single = message(0);
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(message(i));
+        }
+        receipt = new ReadReceiptDTO();
+        receipt.setUserId("2");
+        receipt.setCounterpartId("1");
+        receipt.setAdid("900");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Message sendSingle() {
+        return messageService.saveMessage(single);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Message> sendBatch() {
+        return messageService.saveMessages(batch);
+    }
+
+    @Benchmark
+    public void markRead() {
+        receipt.setLastReadId(++lastReadId);
+        readReceiptBuffer.markRead(receipt);
+    }
+
+    private static MessageDTO message(int i) {
+        MessageDTO dto = new MessageDTO();
+        dto.setSenderid("1");
+        dto.setReceiverid(String.valueOf(2 + i % 5));
+        dto.setAdid("900");
+        dto.setContent("Offline message " + i);
+        return dto;
+    }
+}
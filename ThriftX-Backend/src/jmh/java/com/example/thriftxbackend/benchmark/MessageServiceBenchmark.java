@@ -0,0 +1,77 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.dto.ConversationDTO;
+import com.example.thriftxbackend.entity.Message;
+import com.example.thriftxbackend.service.ConversationBackfill;
+import com.example.thriftxbackend.service.MessageService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageServiceBenchmark {
+
+    @Param({"10", "200", "1000"})
+    public int threads;
+
+    @Param({"50"})
+    public int messagesPerThread;
+
+    private ConfigurableApplicationContext context;
+    private MessageService messageService;
+    private String counterpart;
+    private String adid;
+    private long latestId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of());
+        new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class))
+                .ensureInbox(threads, messagesPerThread, context.getBean(ConversationBackfill.class));
+        messageService = context.getBean(MessageService.class);
+        counterpart = "2";
+        adid = "1";
+        latestId = messageService.getLatestMessageId(BenchmarkDataGenerator.INBOX_USER, counterpart, adid);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ConversationDTO> latestConversations() {
+        return messageService.getLatestConversations(BenchmarkDataGenerator.INBOX_USER);
+    }
+
+    @Benchmark
+    public List<Message> fullThread() {
+        return messageService.getChatMessages(BenchmarkDataGenerator.INBOX_USER, counterpart, adid);
+    }
+
+    @Benchmark
+    public List<Message> threadDelta() {
+        return messageService.getChatMessages(BenchmarkDataGenerator.INBOX_USER, counterpart, adid, latestId - 2, null, null);
+    }
+}
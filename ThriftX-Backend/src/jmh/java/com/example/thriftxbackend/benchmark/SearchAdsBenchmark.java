@@ -0,0 +1,74 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.dto.AdSummaryDTO;
+import com.example.thriftxbackend.service.VehicleAdService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchAdsBenchmark {
+
+    @Param({"100000"})
+    public int ads;
+
+    @Param({"none", "search", "category", "location", "price", "search+category", "search+location", "search+price", "category+location", "category+price", "location+price", "search+category+location", "search+category+price", "search+location+price", "category+location+price", "search+category+location+price"})
+    public String filters;
+
+    @Param({"true"})
+    public boolean fullText;
+
+    @Param({"0", "50"})
+    public int page;
+
+    private ConfigurableApplicationContext context;
+    private VehicleAdService vehicleAdService;
+    private String search;
+    private String category;
+    private String location;
+    private Integer minPrice;
+    private Integer maxPrice;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of("thriftx.search.full-text", fullText));
+        new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class)).ensureAds(ads);
+        vehicleAdService = context.getBean(VehicleAdService.class);
+        search = filters.contains("search") ? "toyota model4" : null;
+        category = filters.contains("category") ? "Category 7" : null;
+        location = filters.contains("location") ? "city 12" : null;
+        minPrice = filters.contains("price") ? 200000 : null;
+        maxPrice = filters.contains("price") ? 800000 : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<AdSummaryDTO> searchAds() {
+        return vehicleAdService.searchAds(search, category, location, minPrice, maxPrice, null, page, 10);
+    }
+}
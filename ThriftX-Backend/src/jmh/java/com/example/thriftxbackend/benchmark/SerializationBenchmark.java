@@ -0,0 +1,138 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.thriftxbackend.dto.AdFeedDTO;
+import com.example.thriftxbackend.dto.AdSummaryDTO;
+import com.example.thriftxbackend.entity.Message;
+import com.example.thriftxbackend.service.ImageVariant;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"feed", "chat"})
+    public String payload;
+
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    private ObjectWriter writer;
+    private Object value;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().factory(factory(format));
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper mapper = builder.build();
+        value = payload.equals("feed") ? feed(20) : chat(200);
+        writer = mapper.writerFor(value.getClass());
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize size) throws IOException {
+        byte[] encoded = writer.writeValueAsBytes(value);
+        size.payloadBytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public byte[] serializeGzip(PayloadSize size) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, value);
+        }
+        byte[] encoded = bytes.toByteArray();
+        size.payloadBytes = encoded.length;
+        return encoded;
+    }
+
+    /**
+     * Reports the encoded size of the last payload as the payloadBytes secondary result, so each
+     * format's timing is listed next to its size.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    private static AdFeedDTO feed(int size) {
+        List<AdSummaryDTO> ads = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            AdSummaryDTO ad = new AdSummaryDTO();
+            ad.setId(100000L + i);
+            ad.setTitle("Toyota Corolla " + i);
+            ad.setPrice(450000 + i * 1000);
+            ad.setCategory("Sedan");
+            ad.setLocation("Kochi, Kerala");
+            ad.setYear(2015 + i % 8);
+            ad.setMileage(42000 + i * 17);
+            ad.setUsername("dealer" + i % 5);
+            ad.setUserId(7L + i % 5);
+            ad.setImageUrl(ImageVariant.LARGE.url(String.format("%032x", i)));
+            ad.setThumbnailUrl(ImageVariant.THUMB.url(String.format("%032x", i)));
+            ads.add(ad);
+        }
+        return new AdFeedDTO(ads, "TkVXRVNUOjEwMDAwMDoxMDAwMDA");
+    }
+
+    private static ArrayList<Message> chat(int size) {
+        ArrayList<Message> messages = new ArrayList<>(size);
+        Instant start = Instant.parse("2026-01-01T10:00:00Z");
+        for (int i = 0; i < size; i++) {
+            Message message = new Message();
+            message.setId(5000L + i);
+            message.setSenderid(i % 2 == 0 ? "12" : "34");
+            message.setReceiverid(i % 2 == 0 ? "34" : "12");
+            message.setAdid("981");
+            message.setContent("Is the car still available? I can come and see it on Saturday " + i);
+            message.setCreatedAt(start.plusSeconds(i * 37L));
+            messages.add(message);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time from launching the packaged application to its first successful feed response. The
+ * fast-start variant needs the artifacts of the fast-start profile, so run it with
+ * -Pfast-start,benchmarks against an already migrated database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String TARGET = System.getProperty("startup.target", "target");
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+    @Param({"default", "fast-start"})
+    public String mode;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private Process process;
+
+    @TearDown(Level.Iteration)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+            process.destroyForcibly();
+            process = null;
+        }
+    }
+
+    @Benchmark
+    public int firstRequest() throws IOException, InterruptedException {
+        int port = freePort();
+        process = new ProcessBuilder(command(port))
+                .redirectErrorStream(true)
+                .redirectOutput(new File(TARGET, "startup-" + mode + ".log"))
+                .start();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/ads?size=1"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (IOException notListeningYet) {
+                // keep polling until the connector is up
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("No response within " + TIMEOUT);
+    }
+
+    private List<String> command(int port) {
+        List<String> command = new ArrayList<>(List.of("java"));
+        if (mode.equals("fast-start")) {
+            File dir = new File(TARGET, "fast-start");
+            command.add("-XX:SharedArchiveFile=" + new File(dir, "app.jsa").getPath());
+            command.add("-Dspring.aot.enabled=true");
+            command.add("-jar");
+            command.add(new File(dir, "signup-backend-0.0.1-SNAPSHOT-fast-start.jar").getPath());
+            command.add("--spring.profiles.active=fast-start");
+        } else {
+            command.add("-jar");
+            command.add(new File(TARGET, "signup-backend-0.0.1-SNAPSHOT.jar").getPath());
+        }
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=" + BenchmarkContext.env("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/thriftx_bench"));
+        command.add("--spring.datasource.username=" + BenchmarkContext.env("BENCH_JDBC_USER", "postgres"));
+        command.add("--spring.datasource.password=" + BenchmarkContext.env("BENCH_JDBC_PASSWORD", "postgres"));
+        return command;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.service.UserService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of());
+        new BenchmarkDataGenerator(context.getBean(JdbcTemplate.class)).ensureUsers(1000);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean authenticateKnownUser() {
+        return userService.authenticateUser("user42", "secret42");
+    }
+
+    @Benchmark
+    public boolean authenticateUnknownUser() {
+        return userService.authenticateUser("nobody", "secret");
+    }
+}
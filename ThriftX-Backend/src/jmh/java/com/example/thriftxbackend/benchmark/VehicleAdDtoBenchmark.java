@@ -0,0 +1,82 @@
+package com.example.thriftxbackend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.thriftxbackend.dto.VehicleAdResponseDTO;
+import com.example.thriftxbackend.entity.User;
+import com.example.thriftxbackend.entity.VehicleAd;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VehicleAdDtoBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<VehicleAd> ads;
+    private List<VehicleAdResponseDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("dealer7");
+        ads = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            VehicleAd ad = new VehicleAd();
+            ad.setId((long) i);
+            ad.setUser(user);
+            ad.setUsername(user.getUsername());
+            ad.setTitle("Toyota Corolla " + i);
+            ad.setPrice(450000 + i);
+            ad.setCategory("Sedan");
+            ad.setLocation("Kochi, Kerala");
+            ad.setYear(2015);
+            ad.setMileage(42000 + i);
+            ad.setDescription("Well maintained vehicle, single owner, full service history, new tyres and battery.");
+            ad.setImageUrl("https://images.example.com/" + i + ".jpg");
+            ads.add(ad);
+        }
+        dtos = map();
+    }
+
+    @Benchmark
+    public List<VehicleAdResponseDTO> map() {
+        List<VehicleAdResponseDTO> result = new ArrayList<>(ads.size());
+        for (VehicleAd ad : ads) {
+            result.add(new VehicleAdResponseDTO(ad));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(map());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.thriftxbackend.config;
+
+import com.example.thriftxbackend.service.ChatTokenService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Authenticates the chat socket on CONNECT with the token issued at login and makes its user id
+ * the session principal. Clients may only subscribe to their own user destinations.
+ */
+@Component
+public class ChatAuthChannelInterceptor implements ChannelInterceptor {
+
+    static final String TOKEN_HEADER = "Authorization";
+    private static final String BEARER = "Bearer ";
+
+    private final ChatTokenService chatTokenService;
+
+    public ChatAuthChannelInterceptor(ChatTokenService chatTokenService) {
+        this.chatTokenService = chatTokenService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            String header = accessor.getFirstNativeHeader(TOKEN_HEADER);
+            String token = header != null && header.startsWith(BEARER) ? header.substring(BEARER.length()) : header;
+            String userId = chatTokenService.verify(token);
+            if (userId == null) {
+                throw new MessageDeliveryException("Invalid or expired chat token");
+            }
+            accessor.setUser(new ChatPrincipal(userId));
+        } else if (command == StompCommand.SUBSCRIBE || command == StompCommand.SEND) {
+            if (accessor.getUser() == null) {
+                throw new MessageDeliveryException("Not authenticated");
+            }
+            String destination = accessor.getDestination();
+            if (command == StompCommand.SUBSCRIBE && (destination == null || !destination.startsWith("/user/queue/"))) {
+                throw new MessageDeliveryException("Subscriptions are limited to /user/queue/*");
+            }
+        }
+        return message;
+    }
+
+    record ChatPrincipal(String userId) implements Principal {
+
+        @Override
+        public String getName() {
+            return userId;
+        }
+    }
+}
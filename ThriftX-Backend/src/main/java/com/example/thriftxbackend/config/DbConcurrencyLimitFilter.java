@@ -0,0 +1,81 @@
+package com.example.thriftxbackend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent database-backed /api requests below the connection pool size and sheds the
+ * excess with 429 after a short wait, so a burst is refused up front instead of queueing on
+ * Hikari. Image uploads never touch the database and are left out, so a slow upload cannot hold
+ * a permit that search and chat need.
+ */
+@Component
+@ConditionalOnProperty(name = "thriftx.db.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class DbConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final List<String> DB_ROUTES = List.of(
+            "/api/ads", "/api/realtime-messages", "/api/users/", "/api/login", "/api/signup");
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final int retryAfterSeconds;
+    private final Counter rejected;
+
+    public DbConcurrencyLimitFilter(@Value("${thriftx.db.limiter.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+                                    @Value("${thriftx.db.limiter.acquire-timeout-ms:100}") long acquireTimeoutMs,
+                                    @Value("${thriftx.db.limiter.retry-after-seconds:1}") int retryAfterSeconds,
+                                    MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejected = Counter.builder("thriftx.db.limiter.rejected").register(meterRegistry);
+        Gauge.builder("thriftx.db.limiter.in.flight", permits, p -> maxConcurrent - p.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("thriftx.db.limiter.waiting", permits, Semaphore::getQueueLength)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return DB_ROUTES.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many concurrent requests");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
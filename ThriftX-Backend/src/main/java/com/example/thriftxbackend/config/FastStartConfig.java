@@ -0,0 +1,35 @@
+package com.example.thriftxbackend.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Only takes effect with spring.main.lazy-initialization=true (the fast-start profile). The
+ * entity manager factory stays eager so Hibernate bootstraps on the background executor while
+ * the web server starts, and beans with @Scheduled methods stay eager so their jobs still run.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter backgroundBeansStayEager() {
+        return (beanName, beanDefinition, beanType) ->
+                AbstractEntityManagerFactoryBean.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType),
+                method -> scheduled.set(true),
+                method -> !scheduled.get() && AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return scheduled.get();
+    }
+}
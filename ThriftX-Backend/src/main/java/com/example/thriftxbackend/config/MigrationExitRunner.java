@@ -0,0 +1,36 @@
+package com.example.thriftxbackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ends the migrate profile run once Flyway, Hibernate schema validation and the other startup
+ * runners have finished, so it can run as a one-shot job before the fast-start pods.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "thriftx.migrate.exit-when-done", havingValue = "true")
+public class MigrationExitRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigrationExitRunner.class);
+
+    private final ConfigurableApplicationContext context;
+
+    public MigrationExitRunner(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Schema migrated and validated, exiting");
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.thriftxbackend.config;
+
+import com.example.thriftxbackend.service.RateLimiter;
+import com.example.thriftxbackend.service.RateLimiter.Endpoint;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rate limits by client address before DbConcurrencyLimitFilter, so a client that is over
+ * its budget never takes one of the database permits.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long retryAfterMs = rateLimiter.tryAcquire(classify(request), "ip:" + request.getRemoteAddr());
+        if (retryAfterMs > 0) {
+            response.setHeader("Retry-After", String.valueOf((retryAfterMs + 999) / 1000));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    static Endpoint classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return path.equals("/api/ads") || path.startsWith("/api/ads/") ? Endpoint.SEARCH : null;
+        }
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            return null;
+        }
+        return switch (path) {
+            case "/api/realtime-messages", "/api/realtime-messages/batch" -> Endpoint.CHAT_SEND;
+            case "/api/login" -> Endpoint.LOGIN;
+            case "/api/signup" -> Endpoint.SIGNUP;
+            case "/api/images" -> Endpoint.IMAGE_UPLOAD;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.thriftxbackend.config;
+
+import com.example.thriftxbackend.config.ReplicaRoutingDataSource.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "thriftx.datasource.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                 @Value("${thriftx.datasource.replica.urls}") List<String> replicaUrls,
+                                 @Value("${thriftx.datasource.replica.max-lag-ms:2000}") long maxLagMs,
+                                 @Value("${thriftx.datasource.replica.connection-timeout-ms:1000}") long replicaConnectionTimeoutMs) {
+        HikariDataSource primary = pool(properties, environment, properties.determineUrl(), "primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = pool(properties, environment, url.trim(), name);
+            pool.setConnectionTimeout(replicaConnectionTimeoutMs);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            Replica replica = new Replica(name, pool);
+            Gauge.builder("thriftx.db.replica.lag", replica, Replica::getLagMs)
+                    .tag("replica", name).baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("thriftx.db.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .tag("replica", name).register(meterRegistry);
+            replicas.add(replica);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, maxLagMs);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @PreDestroy
+    public void closePools() throws Exception {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${thriftx.datasource.replica.check-interval-ms:5000}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicas();
+        }
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
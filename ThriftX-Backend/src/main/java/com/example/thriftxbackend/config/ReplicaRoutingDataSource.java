@@ -0,0 +1,169 @@
+package com.example.thriftxbackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    // A replica whose WAL receiver has dropped still reports receive = replay, so it must also be
+    // streaming. Reading pg_stat_wal_receiver.status needs pg_read_all_stats (or pg_monitor).
+    private static final String LAG_QUERY =
+            "SELECT NOT pg_is_in_recovery() OR EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming'), " +
+            "CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagMs) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagMs = maxLagMs;
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            FORCE_PRIMARY.set(previous);
+        }
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            markUnavailable(replica, e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.dataSource.getConnection(username, password);
+        } catch (SQLException e) {
+            markUnavailable(replica, e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    Replica route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || FORCE_PRIMARY.get() != null) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void markUnavailable(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} is now skipped: {}", replica.name, e.getMessage());
+        }
+    }
+
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(LAG_QUERY)) {
+                lag.next();
+                boolean streaming = lag.getBoolean(1);
+                replica.lagMs = lag.getDouble(2);
+                replica.healthy = streaming && replica.lagMs <= maxLagMs;
+            } catch (SQLException e) {
+                replica.lagMs = Double.NaN;
+                replica.healthy = false;
+            }
+            if (wasHealthy != replica.healthy) {
+                log.warn("Replica {} is now {} (lag {} ms)", replica.name, replica.healthy ? "healthy" : "skipped", replica.lagMs);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    public static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile double lagMs;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public double getLagMs() {
+            return lagMs;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.thriftxbackend.config;
+
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.support.RegisteredBean;
+
+/**
+ * Keeps Spring Security's mvcHandlerMappingIntrospectorRequestTransformer out of the AOT
+ * initializer. Security's own registry post-processor registers it again at runtime, and the
+ * second registration fails unless bean definition overriding is switched on for everything.
+ */
+public class SecurityAotExcludeFilter implements BeanRegistrationExcludeFilter {
+
+    static final String REQUEST_TRANSFORMER = "mvcHandlerMappingIntrospectorRequestTransformer";
+
+    @Override
+    public boolean isExcludedFromAotProcessing(RegisteredBean registeredBean) {
+        return REQUEST_TRANSFORMER.equals(registeredBean.getBeanName());
+    }
+}
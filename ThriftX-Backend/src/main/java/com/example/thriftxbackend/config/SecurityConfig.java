@@ -1,18 +1,83 @@
 package com.example.thriftxbackend.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
+    @ConditionalOnWebApplication
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
         return http.build();
     }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${thriftx.auth.bcrypt-strength:10}") int bcryptStrength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        encoder.setDefaultPasswordEncoderForMatches(new LegacyPlaintextPasswordEncoder(encoder));
+        return encoder;
+    }
+
+    /**
+     * Runs the repository work that follows a hash, so the hash pool only ever spends its threads
+     * on bcrypt. The WebSocket broker's executors stop Boot from creating applicationTaskExecutor,
+     * so this pool is declared here, as a plain executor so JPA does not adopt it for bootstrap.
+     */
+    @Bean
+    public ExecutorService authDatabaseExecutor(@Value("${thriftx.auth.db-threads:4}") int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "auth-db-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Matches rows stored before hashing was introduced. Anything it is asked to encode is hashed
+     * by the bcrypt encoder, so a plaintext password is never written back.
+     */
+    private static final class LegacyPlaintextPasswordEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder hashingEncoder;
+
+        LegacyPlaintextPasswordEncoder(PasswordEncoder hashingEncoder) {
+            this.hashingEncoder = hashingEncoder;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return hashingEncoder.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String storedPassword) {
+            return MessageDigest.isEqual(rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String storedPassword) {
+            return true;
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.thriftxbackend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Value("${thriftx.chat.ws.send-buffer-size-limit:131072}")
+    private int sendBufferSizeLimit;
+
+    @Value("${thriftx.chat.ws.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${thriftx.chat.ws.outbound-threads:8}")
+    private int outboundThreads;
+
+    @Value("${thriftx.chat.ws.outbound-queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Autowired
+    private ChatAuthChannelInterceptor chatAuthChannelInterceptor;
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws/chat").setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/queue")
+                .setHeartbeatValue(new long[] {10000, 10000})
+                .setTaskScheduler(messageBrokerTaskScheduler);
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimit);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(chatAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads)
+                .queueCapacity(outboundQueueCapacity);
+    }
+}
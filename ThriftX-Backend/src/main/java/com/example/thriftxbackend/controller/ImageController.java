@@ -0,0 +1,101 @@
+package com.example.thriftxbackend.controller;
+
+import com.example.thriftxbackend.dto.ImageUploadDTO;
+import com.example.thriftxbackend.service.ImageStorageService;
+import com.example.thriftxbackend.service.ImageVariant;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@CrossOrigin(origins = "*")
+public class ImageController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+
+    private final ImageStorageService imageStorageService;
+
+    public ImageController(ImageStorageService imageStorageService) {
+        this.imageStorageService = imageStorageService;
+    }
+
+    @PostMapping("/api/images")
+    public ResponseEntity<ImageUploadDTO> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        ImageUploadDTO upload = imageStorageService.store(file.getBytes());
+        return ResponseEntity.status(upload.isReady() ? HttpStatus.OK : HttpStatus.ACCEPTED).body(upload);
+    }
+
+    @GetMapping(ImageVariant.URL_PREFIX + "{key}/{variant}.jpg")
+    public void serve(@PathVariable String key, @PathVariable String variant,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageVariant imageVariant = ImageVariant.fromKey(variant);
+        Path file = imageVariant == null ? null : imageStorageService.variantPath(key, imageVariant);
+        if (file == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (Files.exists(file)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+            if (new ServletWebRequest(request, response).checkNotModified("\"" + key + "-" + variant + "\"")) {
+                return;
+            }
+            send(file, MediaType.IMAGE_JPEG_VALUE, request, response);
+            return;
+        }
+        Path original = imageStorageService.originalPath(key);
+        if (!Files.exists(original)) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        send(original, contentType(original), request, response);
+    }
+
+    private static void send(Path file, String contentType, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long length = Files.size(file);
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        Files.copy(file, response.getOutputStream());
+    }
+
+    private static String contentType(Path file) throws IOException {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+            String guessed = URLConnection.guessContentTypeFromStream(input);
+            return guessed != null ? guessed : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+}
@@ -7,24 +7,30 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import com.example.thriftxbackend.dto.LoginResponseDTO;
 import com.example.thriftxbackend.dto.UserDetails;
+import com.example.thriftxbackend.service.ChatTokenService;
+import com.example.thriftxbackend.service.RateLimiter;
 import com.example.thriftxbackend.service.UserService;
-import java.util.HashMap;
-import java.util.Map;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.CompletableFuture;
 import com.example.thriftxbackend.entity.User;
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class MessageController {
     private final UserService userService;
+    private final RateLimiter rateLimiter;
+    private final ChatTokenService chatTokenService;
     
-    public MessageController(UserService userService) {
+    public MessageController(UserService userService, RateLimiter rateLimiter, ChatTokenService chatTokenService) {
         this.userService = userService;
+        this.rateLimiter = rateLimiter;
+        this.chatTokenService = chatTokenService;
     }
     @PostMapping("/signup")
-    public String receivemessage(@RequestBody UserDetails userDetails){
-        userService.saveuser(userDetails);
-        return "User registered successfully";
+    public CompletableFuture<String> receivemessage(@RequestBody UserDetails userDetails){
+        return userService.saveuser(userDetails).thenApply(saved -> "User registered successfully");
     }
     @GetMapping("/users/{username}")
 public ResponseEntity<User> getUserByUsername(@PathVariable String username) {
@@ -37,23 +43,27 @@ public ResponseEntity<User> getUserByUsername(@PathVariable String username) {
 }
 
     @PostMapping("/login")
-public ResponseEntity<Map<String, String>> login(@RequestBody UserDetails userDetails) {
-    boolean authenticated = userService.authenticateUser(userDetails.getUsername(), userDetails.getPassword());
-    if (authenticated) {
-        User user = userService.getUserByUsername(userDetails.getUsername());
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Login successful");
-        response.put("id", String.valueOf(user.getId()));
-        response.put("username", user.getUsername());
-        response.put("email", user.getEmail());
-
-        return ResponseEntity.ok(response);
-    } else {
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Invalid username or password");
-        return ResponseEntity.status(401).body(response);
+public CompletableFuture<ResponseEntity<LoginResponseDTO>> login(@RequestBody UserDetails userDetails,
+                                                                 HttpServletRequest request) {
+    // Keyed on address and username together, so nobody can lock another user out from elsewhere.
+    long retryAfterMs = rateLimiter.tryAcquire(RateLimiter.Endpoint.LOGIN,
+            "ip-user:" + request.getRemoteAddr() + ":" + userDetails.getUsername());
+    if (retryAfterMs > 0) {
+        return CompletableFuture.completedFuture(ResponseEntity.status(429)
+                .header("Retry-After", String.valueOf((retryAfterMs + 999) / 1000))
+                .body(new LoginResponseDTO("Too many login attempts, retry later", null, null, null)));
     }
+    return userService.login(userDetails.getUsername(), userDetails.getPassword()).thenApply(user -> user != null
+            ? ResponseEntity.ok(loggedIn(user))
+            : ResponseEntity.status(401).body(new LoginResponseDTO("Invalid username or password", null, null, null)));
 }
 
+    private LoginResponseDTO loggedIn(User user) {
+        String userId = String.valueOf(user.getId());
+        LoginResponseDTO response = new LoginResponseDTO("Login successful", userId, user.getUsername(), user.getEmail());
+        response.setChatToken(chatTokenService.issue(userId));
+        return response;
+    }
+
 }
 
@@ -1,13 +1,21 @@
 package com.example.thriftxbackend.controller;
 
+import com.example.thriftxbackend.dto.ConversationDTO;
 import com.example.thriftxbackend.dto.MessageDTO;
+import com.example.thriftxbackend.dto.ReadReceiptDTO;
 import com.example.thriftxbackend.entity.Message;
+import com.example.thriftxbackend.service.ChatPushService;
 import com.example.thriftxbackend.service.MessageService;
+import com.example.thriftxbackend.service.RateLimiter;
+import com.example.thriftxbackend.service.ReadReceiptBuffer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.security.Principal;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/realtime-messages")
@@ -15,13 +23,31 @@ public class RealtimeMessageController {
 
     @Autowired
     private MessageService messageService;
+
+    @Autowired
+    private ReadReceiptBuffer readReceiptBuffer;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ChatPushService chatPushService;
     
     @GetMapping("/{user1}/{user2}/{adid}")
-    public List<Message> getChatMessages(
+    public ResponseEntity<List<Message>> getChatMessages(
             @PathVariable String user1,
             @PathVariable String user2,
-            @PathVariable String adid) {
-        return messageService.getChatMessages(user1, user2, adid);
+            @PathVariable String adid,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            WebRequest request) {
+        Long latestId = messageService.getLatestMessageId(user1, user2, adid);
+        if (request.checkNotModified("W/\"" + (latestId == null ? 0 : latestId) + "\"")) {
+            return null;
+        }
+        return ResponseEntity.ok(messageService.getChatMessages(user1, user2, adid, afterId, beforeId, limit, includeArchived));
     }
 
     @PostMapping
@@ -29,8 +55,36 @@ public class RealtimeMessageController {
         return messageService.saveMessage(messageDTO);
     }
     
+    @PostMapping("/batch")
+    public List<Message> sendMessages(@RequestBody List<MessageDTO> messageDTOs) {
+        return messageService.saveMessages(messageDTOs);
+    }
+
+    @PostMapping("/read")
+    public ResponseEntity<Void> markRead(@RequestBody List<ReadReceiptDTO> receipts) {
+        receipts.forEach(readReceiptBuffer::markRead);
+        return ResponseEntity.accepted().build();
+    }
+
+    @MessageMapping("/chat.send")
+    public void sendMessageOverSocket(MessageDTO messageDTO, Principal principal) {
+        messageDTO.setSenderid(principal.getName());
+        long retryAfterMs = rateLimiter.tryAcquire(RateLimiter.Endpoint.CHAT_SEND, "user:" + principal.getName());
+        if (retryAfterMs > 0) {
+            chatPushService.pushError(principal.getName(), "Rate limit exceeded", retryAfterMs);
+            return;
+        }
+        messageService.saveMessage(messageDTO);
+    }
+
+    @MessageMapping("/chat.read")
+    public void markReadOverSocket(ReadReceiptDTO receipt, Principal principal) {
+        receipt.setUserId(principal.getName());
+        readReceiptBuffer.markRead(receipt);
+    }
+
     @GetMapping("/latest/{buyerId}")
-    public List<Map<String, Object>> getLatestConversations(@PathVariable String buyerId) {
+    public List<ConversationDTO> getLatestConversations(@PathVariable String buyerId) {
         return messageService.getLatestConversations(buyerId);
     }
 }
\ No newline at end of file
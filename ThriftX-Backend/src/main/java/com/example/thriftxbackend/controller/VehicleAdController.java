@@ -4,24 +4,41 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.thriftxbackend.dto.AdFacetsDTO;
+import com.example.thriftxbackend.dto.AdFeedDTO;
+import com.example.thriftxbackend.dto.AdSummaryDTO;
 import com.example.thriftxbackend.dto.VehicleAdResponseDTO;
+import com.example.thriftxbackend.metrics.SearchMetrics;
+import com.example.thriftxbackend.service.AdIngestionQueue;
+import com.example.thriftxbackend.service.GeoArea;
 import com.example.thriftxbackend.service.VehicleAdService;
 
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
+import java.util.Map;
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class VehicleAdController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final VehicleAdService vehicleAdService;
+    private final AdIngestionQueue adIngestionQueue;
+    private final SearchMetrics searchMetrics;
 
-    public VehicleAdController(VehicleAdService vehicleAdService) {
+    public VehicleAdController(VehicleAdService vehicleAdService, AdIngestionQueue adIngestionQueue, SearchMetrics searchMetrics) {
         this.vehicleAdService = vehicleAdService;
+        this.adIngestionQueue = adIngestionQueue;
+        this.searchMetrics = searchMetrics;
     }
 
     @PostMapping("/ads/post")
@@ -30,21 +47,79 @@ public class VehicleAdController {
         return "Ad posted successfully";
     }
 
+    @PostMapping("/ads/bulk")
+    public ResponseEntity<Map<String, Integer>> postAds(@RequestBody List<VehicleAdResponseDTO> dtos) {
+        if (dtos.size() > adIngestionQueue.capacity()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + adIngestionQueue.capacity() + " ads per bulk request");
+        }
+        if (!adIngestionQueue.offer(dtos)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "5")
+                    .body(Map.of("accepted", 0, "queued", adIngestionQueue.size()));
+        }
+        return ResponseEntity.accepted().body(Map.of("accepted", dtos.size(), "queued", adIngestionQueue.size()));
+    }
+
     @GetMapping("/ads")
-    public Page<VehicleAdResponseDTO> getAds(
+    public Page<AdSummaryDTO> getAds(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) Integer minPrice,
             @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double maxLon,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        return vehicleAdService.searchAds(search, category, location, minPrice, maxPrice, page, size);
+        long start = System.nanoTime();
+        GeoArea near = GeoArea.fromRequest(lat, lon, radiusKm, minLat, minLon, maxLat, maxLon);
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must not be negative");
+        }
+        Page<AdSummaryDTO> ads = vehicleAdService.searchAds(search, category, location, minPrice, maxPrice, near, page, pageSize(size));
+        searchMetrics.record(SearchMetrics.filterMask(search, category, location, minPrice, maxPrice, near != null), start, ads.getNumberOfElements());
+        return ads;
+    }
+    @GetMapping("/ads/{id:\\d+}")
+    public VehicleAdResponseDTO getAd(@PathVariable Long id) {
+        return vehicleAdService.getAd(id);
+    }
+    @GetMapping("/ads/feed")
+    public AdFeedDTO getAdFeed(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return vehicleAdService.getAdFeed(search, category, location, minPrice, maxPrice, sort, cursor, pageSize(size));
+    }
+    @GetMapping("/ads/facets")
+    public AdFacetsDTO getFacets(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice) {
+        return vehicleAdService.getFacets(search, category, location, minPrice, maxPrice);
     }
     @GetMapping("/ads/user")
     public List<VehicleAdResponseDTO> findUserbyId(@RequestParam Long user_id) {
         return vehicleAdService.getAdsByUserId(user_id);
     }
-    
 
+    private static int pageSize(int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be at least 1");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
 }
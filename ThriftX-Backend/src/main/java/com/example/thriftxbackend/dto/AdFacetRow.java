@@ -0,0 +1,7 @@
+package com.example.thriftxbackend.dto;
+
+public interface AdFacetRow {
+    String getFacet();
+    String getValue();
+    Long getHits();
+}
@@ -0,0 +1,24 @@
+package com.example.thriftxbackend.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AdFacetsDTO implements Serializable {
+    private long total;
+    private List<FacetCountDTO> categories = new ArrayList<>();
+    private List<FacetCountDTO> locations = new ArrayList<>();
+    private List<PriceBucketDTO> priceBuckets = new ArrayList<>();
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public List<FacetCountDTO> getCategories() { return categories; }
+    public void setCategories(List<FacetCountDTO> categories) { this.categories = categories; }
+
+    public List<FacetCountDTO> getLocations() { return locations; }
+    public void setLocations(List<FacetCountDTO> locations) { this.locations = locations; }
+
+    public List<PriceBucketDTO> getPriceBuckets() { return priceBuckets; }
+    public void setPriceBuckets(List<PriceBucketDTO> priceBuckets) { this.priceBuckets = priceBuckets; }
+}
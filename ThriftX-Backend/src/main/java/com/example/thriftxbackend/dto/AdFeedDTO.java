@@ -0,0 +1,26 @@
+package com.example.thriftxbackend.dto;
+
+import java.util.List;
+
+public class AdFeedDTO {
+    private List<AdSummaryDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public AdFeedDTO() {
+    }
+    public AdFeedDTO(List<AdSummaryDTO> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    public List<AdSummaryDTO> getContent() { return content; }
+    public void setContent(List<AdSummaryDTO> content) { this.content = content; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
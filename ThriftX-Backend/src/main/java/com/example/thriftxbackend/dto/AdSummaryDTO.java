@@ -0,0 +1,82 @@
+package com.example.thriftxbackend.dto;
+
+import java.io.Serializable;
+
+import com.example.thriftxbackend.service.ImageVariant;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class AdSummaryDTO implements Serializable {
+    private Long id;
+    private String username;
+    private Long userId;
+    private String title;
+    private Integer price;
+    private String category;
+    private String location;
+    private Integer year;
+    private Integer mileage;
+    private String imageUrl;
+    private String thumbnailUrl;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
+
+    public AdSummaryDTO() {
+    }
+    public AdSummaryDTO(AdSummaryRow row) {
+        this.id = row.getId();
+        this.title = row.getTitle();
+        this.price = row.getPrice();
+        this.category = row.getCategory();
+        this.location = row.getLocation();
+        this.year = row.getYear();
+        this.mileage = row.getMileage();
+        this.username = row.getUsername();
+        this.userId = row.getUserId();
+        String imageKey = row.getImageKey();
+        if (imageKey != null) {
+            this.imageUrl = row.getImageUrl() != null ? row.getImageUrl() : ImageVariant.LARGE.url(imageKey);
+            this.thumbnailUrl = ImageVariant.THUMB.url(imageKey);
+        } else {
+            this.imageUrl = row.getImageUrl();
+        }
+        if (row.getDistanceKm() != null) {
+            this.distanceKm = Math.round(row.getDistanceKm() * 10) / 10.0;
+        }
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public Integer getPrice() { return price; }
+    public void setPrice(Integer price) { this.price = price; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
+
+    public Integer getMileage() { return mileage; }
+    public void setMileage(Integer mileage) { this.mileage = mileage; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+}
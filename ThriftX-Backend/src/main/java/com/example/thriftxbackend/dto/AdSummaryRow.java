@@ -0,0 +1,16 @@
+package com.example.thriftxbackend.dto;
+
+public interface AdSummaryRow {
+    Long getId();
+    String getTitle();
+    Integer getPrice();
+    String getCategory();
+    String getLocation();
+    Integer getYear();
+    Integer getMileage();
+    String getUsername();
+    Long getUserId();
+    String getImageUrl();
+    String getImageKey();
+    Double getDistanceKm();
+}
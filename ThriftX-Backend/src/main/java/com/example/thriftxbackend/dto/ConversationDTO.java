@@ -0,0 +1,68 @@
+package com.example.thriftxbackend.dto;
+
+import com.example.thriftxbackend.entity.Conversation;
+import com.example.thriftxbackend.entity.Message;
+
+public class ConversationDTO {
+    private Long id;
+    private String senderid;
+    private String receiverid;
+    private String adid;
+    private String content;
+    private String username;
+    private String otherUserId;
+    private Integer unreadCount;
+    private Long lastReadMessageId;
+
+    public ConversationDTO() {
+    }
+    public ConversationDTO(Message message, String otherUserId, String username) {
+        this.id = message.getId();
+        this.senderid = message.getSenderid();
+        this.receiverid = message.getReceiverid();
+        this.adid = message.getAdid();
+        this.content = message.getContent();
+        this.otherUserId = otherUserId;
+        this.username = username;
+    }
+    public ConversationDTO(Conversation conversation, Message message, String username) {
+        this.id = conversation.getLastMessageId();
+        this.adid = conversation.getAdid();
+        if (message != null) {
+            this.senderid = message.getSenderid();
+            this.receiverid = message.getReceiverid();
+            this.content = message.getContent();
+        }
+        this.otherUserId = conversation.getCounterpartId();
+        this.username = username;
+        this.unreadCount = conversation.getUnreadCount();
+        this.lastReadMessageId = conversation.getLastReadMessageId();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSenderid() { return senderid; }
+    public void setSenderid(String senderid) { this.senderid = senderid; }
+
+    public String getReceiverid() { return receiverid; }
+    public void setReceiverid(String receiverid) { this.receiverid = receiverid; }
+
+    public String getAdid() { return adid; }
+    public void setAdid(String adid) { this.adid = adid; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getOtherUserId() { return otherUserId; }
+    public void setOtherUserId(String otherUserId) { this.otherUserId = otherUserId; }
+
+    public Integer getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(Integer unreadCount) { this.unreadCount = unreadCount; }
+
+    public Long getLastReadMessageId() { return lastReadMessageId; }
+    public void setLastReadMessageId(Long lastReadMessageId) { this.lastReadMessageId = lastReadMessageId; }
+}
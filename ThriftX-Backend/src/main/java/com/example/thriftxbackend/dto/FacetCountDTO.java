@@ -0,0 +1,21 @@
+package com.example.thriftxbackend.dto;
+
+import java.io.Serializable;
+
+public class FacetCountDTO implements Serializable {
+    private String value;
+    private long count;
+
+    public FacetCountDTO() {
+    }
+    public FacetCountDTO(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
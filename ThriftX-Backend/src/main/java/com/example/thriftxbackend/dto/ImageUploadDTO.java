@@ -0,0 +1,26 @@
+package com.example.thriftxbackend.dto;
+
+import java.util.Map;
+
+public class ImageUploadDTO {
+    private String imageKey;
+    private boolean ready;
+    private Map<String, String> variants;
+
+    public ImageUploadDTO() {
+    }
+    public ImageUploadDTO(String imageKey, boolean ready, Map<String, String> variants) {
+        this.imageKey = imageKey;
+        this.ready = ready;
+        this.variants = variants;
+    }
+
+    public String getImageKey() { return imageKey; }
+    public void setImageKey(String imageKey) { this.imageKey = imageKey; }
+
+    public boolean isReady() { return ready; }
+    public void setReady(boolean ready) { this.ready = ready; }
+
+    public Map<String, String> getVariants() { return variants; }
+    public void setVariants(Map<String, String> variants) { this.variants = variants; }
+}
@@ -0,0 +1,26 @@
+package com.example.thriftxbackend.dto;
+
+import java.io.Serializable;
+
+public class PriceBucketDTO implements Serializable {
+    private Integer min;
+    private Integer max;
+    private long count;
+
+    public PriceBucketDTO() {
+    }
+    public PriceBucketDTO(Integer min, Integer max, long count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public Integer getMin() { return min; }
+    public void setMin(Integer min) { this.min = min; }
+
+    public Integer getMax() { return max; }
+    public void setMax(Integer max) { this.max = max; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,20 @@
+package com.example.thriftxbackend.dto;
+
+public class ReadReceiptDTO {
+    private String userId;
+    private String counterpartId;
+    private String adid;
+    private Long lastReadId;
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getCounterpartId() { return counterpartId; }
+    public void setCounterpartId(String counterpartId) { this.counterpartId = counterpartId; }
+
+    public String getAdid() { return adid; }
+    public void setAdid(String adid) { this.adid = adid; }
+
+    public Long getLastReadId() { return lastReadId; }
+    public void setLastReadId(Long lastReadId) { this.lastReadId = lastReadId; }
+}
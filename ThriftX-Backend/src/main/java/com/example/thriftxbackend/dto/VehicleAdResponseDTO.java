@@ -1,8 +1,12 @@
 package com.example.thriftxbackend.dto;
 
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+
 import com.example.thriftxbackend.entity.VehicleAd;
+import com.example.thriftxbackend.service.ImageVariant;
 
-public class VehicleAdResponseDTO {
+public class VehicleAdResponseDTO implements Serializable {
     private Long id;
     private String username;
     private Long userId;    
@@ -10,10 +14,14 @@ public class VehicleAdResponseDTO {
     private Integer price;
     private String category;
     private String location;
-    private String year;
-    private String mileage;
+    private Integer year;
+    private Integer mileage;
     private String description;
     private String imageUrl;
+    private String imageKey;
+    private LinkedHashMap<String, String> imageVariants;
+    private Double latitude;
+    private Double longitude;
 
     public VehicleAdResponseDTO() {
     }
@@ -29,16 +37,22 @@ public class VehicleAdResponseDTO {
         this.year = vehicleAd.getYear();
         this.mileage = vehicleAd.getMileage();
         this.description = vehicleAd.getDescription();
-        this.imageUrl = vehicleAd.getImageUrl();
+        this.imageKey = vehicleAd.getImageKey();
+        if (imageKey != null) {
+            this.imageVariants = ImageVariant.urls(imageKey);
+            this.imageUrl = vehicleAd.getImageUrl() != null ? vehicleAd.getImageUrl() : ImageVariant.LARGE.url(imageKey);
+        } else {
+            this.imageUrl = vehicleAd.getImageUrl();
+        }
+        this.latitude = vehicleAd.getLatitude();
+        this.longitude = vehicleAd.getLongitude();
     }
     
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
     public String getUsername() { return username; }
-    public void setUsername(String username) { this.username = username; 
-        System.out.println("Setting the username: " + username);
-       }
+    public void setUsername(String username) { this.username = username; }
 
     public Long getUserId() { return userId; }
     public void setUserId(Long userId) { this.userId = userId; 
@@ -56,15 +70,27 @@ public class VehicleAdResponseDTO {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
-    public String getYear() { return year; }
-    public void setYear(String year) { this.year = year; }
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
 
-    public String getMileage() { return mileage; }
-    public void setMileage(String mileage) { this.mileage = mileage; }
+    public Integer getMileage() { return mileage; }
+    public void setMileage(Integer mileage) { this.mileage = mileage; }
 
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public String getImageKey() { return imageKey; }
+    public void setImageKey(String imageKey) { this.imageKey = imageKey; }
+
+    public LinkedHashMap<String, String> getImageVariants() { return imageVariants; }
+    public void setImageVariants(LinkedHashMap<String, String> imageVariants) { this.imageVariants = imageVariants; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
 }
@@ -0,0 +1,95 @@
+package com.example.thriftxbackend.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "conversation")
+public class Conversation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id")
+    private String userId;
+    private String counterpartId;
+    private String adid;
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+    private Integer unreadCount;
+    private Long lastReadMessageId;
+    private Long liveFromId;
+    private Instant updatedAt;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_message_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Message lastMessage;
+
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+    public String getUserId() {
+        return userId;
+    }
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    public String getCounterpartId() {
+        return counterpartId;
+    }
+    public void setCounterpartId(String counterpartId) {
+        this.counterpartId = counterpartId;
+    }
+    public String getAdid() {
+        return adid;
+    }
+    public void setAdid(String adid) {
+        this.adid = adid;
+    }
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+    public Integer getUnreadCount() {
+        return unreadCount;
+    }
+    public void setUnreadCount(Integer unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+    public void setLastReadMessageId(Long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+    public Long getLiveFromId() {
+        return liveFromId;
+    }
+    public void setLiveFromId(Long liveFromId) {
+        this.liveFromId = liveFromId;
+    }
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    public Message getLastMessage() {
+        return lastMessage;
+    }
+}
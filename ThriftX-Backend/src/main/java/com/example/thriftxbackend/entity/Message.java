@@ -1,19 +1,24 @@
 package com.example.thriftxbackend.entity;
 
+import java.time.Instant;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.SequenceGenerator;
 @Entity
 @Table(name = "messages")
 public class Message {
     @Id
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
+    @GeneratedValue(strategy = jakarta.persistence.GenerationType.SEQUENCE, generator = "messages_seq")
+    @SequenceGenerator(name = "messages_seq", sequenceName = "messages_seq", allocationSize = 1)
     private Long id;
     private String senderid;
     private String receiverid;
     private String adid;
     private String content;
+    private Instant createdAt;
 
     public Long getId() {
         return id;
@@ -44,5 +49,11 @@ public class Message {
     }
     public void setContent(String content) {
         this.content = content;
-    }    
+    }
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
 }
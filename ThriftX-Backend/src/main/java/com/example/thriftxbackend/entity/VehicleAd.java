@@ -5,7 +5,8 @@
     @Entity
     public class VehicleAd {
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicle_ad_seq")
+        @SequenceGenerator(name = "vehicle_ad_seq", sequenceName = "vehicle_ad_seq", allocationSize = 1)
         private Long id;
         private  String title;
         private Integer price;
@@ -13,10 +14,13 @@
         private String location;
         private String category;
         private String imageUrl;
-        private String mileage;
-        private String year;
+        private String imageKey;
+        private Double latitude;
+        private Double longitude;
+        private Integer mileage;
+        private Integer year;
         private String username;
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "user_id", nullable = false)
         private User user;
         public Long getId() {
@@ -37,7 +41,6 @@
         }
         public void setUsername(String username) {
             this.username = username;
-            System.out.println("Setting the username: " + username);
         }
         public String getTitle() {
             return title;
@@ -69,24 +72,40 @@
         public void setCategory(String category) {
             this.category = category;
         }
-        public String getMileage() {
+        public Integer getMileage() {
             return mileage;
         }
-        public void setMileage(String mileage) {
+        public void setMileage(Integer mileage) {
             this.mileage = mileage;
         }
-        public String getYear() {
+        public Integer getYear() {
             return year;
         }
-        public void setYear(String year) {
+        public void setYear(Integer year) {
             this.year = year;
-            System.out.println("Year set to: " + year);
         }    
         public String getImageUrl() {
             return imageUrl;
         }
         public void setImageUrl(String imageUrl) {
             this.imageUrl = imageUrl;
-            System.out.println("Image URL set to: " + imageUrl);
+        }
+        public String getImageKey() {
+            return imageKey;
+        }
+        public void setImageKey(String imageKey) {
+            this.imageKey = imageKey;
+        }
+        public Double getLatitude() {
+            return latitude;
+        }
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+        public Double getLongitude() {
+            return longitude;
+        }
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
         }
     }
@@ -0,0 +1,28 @@
+package com.example.thriftxbackend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ChatMetrics {
+
+    private final Counter sent;
+    private final DistributionSummary inboxQueries;
+
+    public ChatMetrics(MeterRegistry meterRegistry) {
+        this.sent = Counter.builder("thriftx.chat.messages.sent").register(meterRegistry);
+        this.inboxQueries = DistributionSummary.builder("thriftx.chat.inbox.queries")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void messagesSent(int count) {
+        sent.increment(count);
+    }
+
+    public void inboxLoaded(long queries) {
+        inboxQueries.record(queries);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.thriftxbackend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+class ConnectionWaitTimingDataSource extends DelegatingDataSource {
+
+    private static final String NO_ENDPOINT = "none";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    ConnectionWaitTimingDataSource(DataSource target, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        record(System.nanoTime() - start);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        record(System.nanoTime() - start);
+        return connection;
+    }
+
+    private void record(long nanos) {
+        String endpoint = currentEndpoint();
+        Timer timer = timers.get(endpoint);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(endpoint, key -> Timer.builder("thriftx.db.connection.wait")
+                    .tag("endpoint", key)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry.getObject()));
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_ENDPOINT;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern instanceof String endpoint ? endpoint : NO_ENDPOINT;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.thriftxbackend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    new RepositoryMetricsInterceptor(meterRegistry.getObject(), information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor dataSourceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                   ObjectProvider<SlowQueryRecorder> slowQueryRecorder,
+                                                                   Environment environment) {
+        boolean slowQueries = environment.getProperty("thriftx.slow-query.enabled", Boolean.class, true);
+        double sampleRate = environment.getProperty("thriftx.slow-query.sample-rate", Double.class, 1.0);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof LazyConnectionDataSourceProxy lazy) {
+                    lazy.setTargetDataSource(new ConnectionWaitTimingDataSource(lazy.getTargetDataSource(), meterRegistry));
+                    return slowQueries ? new SlowQueryDataSource(lazy, slowQueryRecorder, sampleRate) : lazy;
+                }
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                    DataSource timed = new ConnectionWaitTimingDataSource(dataSource, meterRegistry);
+                    return slowQueries ? new SlowQueryDataSource(timed, slowQueryRecorder, sampleRate) : timed;
+                }
+                return bean;
+            }
+        };
+    }
+}
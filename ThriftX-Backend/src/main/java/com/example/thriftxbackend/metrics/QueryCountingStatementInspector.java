@@ -0,0 +1,18 @@
+package com.example.thriftxbackend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static long currentCount() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.thriftxbackend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final ConcurrentHashMap<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    RepositoryMetricsInterceptor(MeterRegistry meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    static String currentMethod() {
+        return CURRENT_METHOD.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Meters methodMeters = meters.get(method);
+        if (methodMeters == null) {
+            methodMeters = meters.computeIfAbsent(method, this::register);
+        }
+        String caller = CURRENT_METHOD.get();
+        CURRENT_METHOD.set(methodMeters.name);
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodMeters.time.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            methodMeters.rows.record(rowCount(result));
+            return result;
+        } finally {
+            CURRENT_METHOD.set(caller);
+        }
+    }
+
+    private Meters register(Method method) {
+        Timer time = Timer.builder("thriftx.repository.query")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        DistributionSummary rows = DistributionSummary.builder("thriftx.repository.rows")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .register(meterRegistry);
+        return new Meters(repository + "." + method.getName(), time, rows);
+    }
+
+    private static int rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+
+    private record Meters(String name, Timer time, DistributionSummary rows) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.thriftxbackend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SearchMetrics {
+
+    private static final int SEARCH = 1;
+    private static final int CATEGORY = 2;
+    private static final int LOCATION = 4;
+    private static final int PRICE = 8;
+    private static final int NEARBY = 16;
+
+    private final Timer[] latency = new Timer[32];
+    private final DistributionSummary[] rows = new DistributionSummary[32];
+
+    public SearchMetrics(MeterRegistry meterRegistry) {
+        for (int mask = 0; mask < latency.length; mask++) {
+            String filters = filterTag(mask);
+            latency[mask] = Timer.builder("thriftx.search.ads")
+                    .tag("filters", filters)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            rows[mask] = DistributionSummary.builder("thriftx.search.ads.rows")
+                    .tag("filters", filters)
+                    .register(meterRegistry);
+        }
+    }
+
+    public static int filterMask(String search, String category, String location, Integer minPrice, Integer maxPrice,
+                                 boolean nearby) {
+        int mask = 0;
+        if (search != null && !search.isBlank()) {
+            mask |= SEARCH;
+        }
+        if (category != null && !category.isBlank()) {
+            mask |= CATEGORY;
+        }
+        if (location != null && !location.isBlank()) {
+            mask |= LOCATION;
+        }
+        if (minPrice != null || maxPrice != null) {
+            mask |= PRICE;
+        }
+        if (nearby) {
+            mask |= NEARBY;
+        }
+        return mask;
+    }
+
+    public void record(int filterMask, long startNanos, int rowCount) {
+        latency[filterMask].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        rows[filterMask].record(rowCount);
+    }
+
+    private static String filterTag(int mask) {
+        if (mask == 0) {
+            return "none";
+        }
+        StringJoiner tag = new StringJoiner("+");
+        if ((mask & SEARCH) != 0) {
+            tag.add("search");
+        }
+        if ((mask & CATEGORY) != 0) {
+            tag.add("category");
+        }
+        if ((mask & LOCATION) != 0) {
+            tag.add("location");
+        }
+        if ((mask & PRICE) != 0) {
+            tag.add("price");
+        }
+        if ((mask & NEARBY) != 0) {
+            tag.add("nearby");
+        }
+        return tag.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.thriftxbackend.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times statements on a sample of connections and hands slow ones to SlowQueryRecorder. Only
+ * sampled connections pay for the statement proxies, so the sample rate bounds the overhead.
+ */
+class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<SlowQueryRecorder> recorder;
+    private final double sampleRate;
+
+    SlowQueryDataSource(DataSource target, ObjectProvider<SlowQueryRecorder> recorder, double sampleRate) {
+        super(target);
+        this.recorder = recorder;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    static final class NullParameter {
+        final int sqlType;
+
+        NullParameter(int sqlType) {
+            this.sqlType = sqlType;
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] {method.getReturnType()}, new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private Object[] parameters;
+        private int parameterCount;
+        private int batches;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                Object result = invokeTarget(target, method, args);
+                long elapsed = System.nanoTime() - start;
+                SlowQueryRecorder slowQueries = recorder.getObject();
+                if (elapsed >= slowQueries.getThresholdNanos()) {
+                    String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                    Object[] bound = parameters == null ? new Object[0] : Arrays.copyOf(parameters, parameterCount);
+                    slowQueries.record(executed, bound, batches, elapsed,
+                            RepositoryMetricsInterceptor.currentMethod(), getTargetDataSource());
+                }
+                return result;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, "setNull".equals(name) ? new NullParameter((Integer) args[1]) : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameters = null;
+                parameterCount = 0;
+            } else if ("addBatch".equals(name)) {
+                batches++;
+            } else if ("clearBatch".equals(name)) {
+                batches = 0;
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (parameters == null) {
+                parameters = new Object[Math.max(8, index)];
+            } else if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.thriftxbackend.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryRecorder recorder;
+
+    public SlowQueryEndpoint(SlowQueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<SlowQueryEntry> slowQueries() {
+        return recorder.snapshot();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+}
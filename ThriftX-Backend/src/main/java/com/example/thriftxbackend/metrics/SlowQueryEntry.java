@@ -0,0 +1,39 @@
+package com.example.thriftxbackend.metrics;
+
+import java.time.Instant;
+import java.util.List;
+
+public class SlowQueryEntry {
+    private final Instant timestamp;
+    private final double durationMs;
+    private final String repositoryMethod;
+    private final String sql;
+    private final List<String> parameters;
+    private final int batchSize;
+    private volatile String plan;
+
+    SlowQueryEntry(Instant timestamp, double durationMs, String repositoryMethod, String sql,
+                   List<String> parameters, int batchSize) {
+        this.timestamp = timestamp;
+        this.durationMs = durationMs;
+        this.repositoryMethod = repositoryMethod;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.batchSize = batchSize;
+    }
+
+    public Instant getTimestamp() { return timestamp; }
+
+    public double getDurationMs() { return durationMs; }
+
+    public String getRepositoryMethod() { return repositoryMethod; }
+
+    public String getSql() { return sql; }
+
+    public List<String> getParameters() { return parameters; }
+
+    public int getBatchSize() { return batchSize; }
+
+    public String getPlan() { return plan; }
+    void setPlan(String plan) { this.plan = plan; }
+}
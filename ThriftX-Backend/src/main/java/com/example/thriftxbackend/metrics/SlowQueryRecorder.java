@@ -0,0 +1,173 @@
+package com.example.thriftxbackend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+@Component
+public class SlowQueryRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryRecorder.class);
+    private static final Pattern NOT_READ_ONLY = Pattern.compile(
+            ";|\\b(insert|update|delete|merge|into|nextval|setval|lock|share|copy|call|do)\\b|advisory|set_config");
+
+    private final long thresholdNanos;
+    private final double explainSampleRate;
+    private final int explainTimeoutMs;
+    private final boolean redactParameters;
+    private final AtomicReferenceArray<SlowQueryEntry> entries;
+    private final AtomicLong next = new AtomicLong();
+    private final ThreadPoolExecutor explainExecutor;
+    private final Counter recorded;
+
+    public SlowQueryRecorder(@Value("${thriftx.slow-query.threshold-ms:200}") long thresholdMs,
+                             @Value("${thriftx.slow-query.capacity:200}") int capacity,
+                             @Value("${thriftx.slow-query.explain-sample-rate:0.1}") double explainSampleRate,
+                             @Value("${thriftx.slow-query.explain-timeout-ms:5000}") int explainTimeoutMs,
+                             @Value("${thriftx.slow-query.redact-parameters:true}") boolean redactParameters,
+                             MeterRegistry meterRegistry) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.explainSampleRate = explainSampleRate;
+        this.explainTimeoutMs = explainTimeoutMs;
+        this.redactParameters = redactParameters;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16), runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        this.recorded = Counter.builder("thriftx.db.slow.queries").register(meterRegistry);
+    }
+
+    long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    void record(String sql, Object[] parameters, int batchSize, long elapsedNanos, String repositoryMethod, DataSource explainDataSource) {
+        if (sql == null) {
+            return;
+        }
+        List<String> shown = new ArrayList<>(parameters.length);
+        for (Object parameter : parameters) {
+            shown.add(describe(parameter));
+        }
+        SlowQueryEntry entry = new SlowQueryEntry(Instant.now(), elapsedNanos / 1_000_000.0, repositoryMethod, sql,
+                Collections.unmodifiableList(shown), batchSize);
+        entries.set((int) (next.getAndIncrement() % entries.length()), entry);
+        recorded.increment();
+        if (batchSize == 0 && isExplainable(sql) && ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+            explainExecutor.execute(() -> explain(entry, parameters, explainDataSource));
+        }
+    }
+
+    public List<SlowQueryEntry> snapshot() {
+        List<SlowQueryEntry> newestFirst = new ArrayList<>(entries.length());
+        long end = next.get();
+        for (long i = end - 1; i >= 0 && i >= end - entries.length(); i--) {
+            SlowQueryEntry entry = entries.get((int) (i % entries.length()));
+            if (entry != null) {
+                newestFirst.add(entry);
+            }
+        }
+        return newestFirst;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+        next.set(0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private void explain(SlowQueryEntry entry, Object[] parameters, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement setup = connection.createStatement()) {
+                    setup.execute("SET TRANSACTION READ ONLY");
+                    setup.execute("SET LOCAL statement_timeout = " + explainTimeoutMs);
+                }
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + entry.getSql())) {
+                    for (int i = 0; i < parameters.length; i++) {
+                        if (parameters[i] instanceof SlowQueryDataSource.NullParameter nullParameter) {
+                            statement.setNull(i + 1, nullParameter.sqlType);
+                        } else {
+                            statement.setObject(i + 1, parameters[i]);
+                        }
+                    }
+                    StringJoiner plan = new StringJoiner("\n");
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            plan.add(rows.getString(1));
+                        }
+                    }
+                    entry.setPlan(plan.toString());
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.debug("Could not explain slow query: {}", e.getMessage());
+            entry.setPlan("EXPLAIN failed: " + e.getMessage());
+        }
+    }
+
+    private String describe(Object parameter) {
+        if (parameter == null || parameter instanceof SlowQueryDataSource.NullParameter) {
+            return "null";
+        }
+        if (parameter instanceof Number || parameter instanceof Boolean || parameter instanceof Temporal) {
+            return parameter.toString();
+        }
+        if (parameter instanceof String text) {
+            return redactParameters ? "<text:" + text.length() + ">" : "'" + text + "'";
+        }
+        return "<" + parameter.getClass().getSimpleName() + ">";
+    }
+
+    /**
+     * Only plain reads are explained: a single SELECT or WITH statement that names no data-modifying
+     * command, sequence function or lock. EXPLAIN without ANALYZE never runs the statement, and the
+     * read-only transaction it runs in is rolled back, so this list is a second line of defence.
+     */
+    static boolean isExplainable(String sql) {
+        String text = sql.strip().toLowerCase(Locale.ROOT);
+        if (text.endsWith(";")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        return (text.startsWith("select") || text.startsWith("with")) && !NOT_READ_ONLY.matcher(text).find();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.thriftxbackend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes application.first.request.time, the time from JVM start until the first request
+ * finished, next to Spring Boot's application.started.time and application.ready.time.
+ */
+@Component
+public class StartupMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupMetrics.class);
+
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    public StartupMetrics(MeterRegistry meterRegistry) {
+        TimeGauge.builder("application.first.request.time", firstRequestMillis, TimeUnit.MILLISECONDS,
+                        millis -> millis.get() < 0 ? Double.NaN : millis.get())
+                .description("Time from JVM start until the first HTTP request completed")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (firstRequestMillis.get() < 0) {
+            long sinceStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            if (firstRequestMillis.compareAndSet(-1, sinceStart)) {
+                log.info("First request {} {} served {} ms after JVM start", event.getMethod(), event.getRequestUrl(), sinceStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.thriftxbackend.repository;
+
+import com.example.thriftxbackend.entity.Conversation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+    String THREAD_HEADS =
+    "SELECT t.user_id, t.counterpart_id, t.adid, MAX(t.id) AS last_id FROM (" +
+    "SELECT m.senderid AS user_id, m.receiverid AS counterpart_id, m.adid, m.id FROM messages m " +
+    "WHERE m.senderid IS NOT NULL AND m.receiverid IS NOT NULL AND m.adid IS NOT NULL " +
+    "UNION ALL " +
+    "SELECT m.receiverid, m.senderid, m.adid, m.id FROM messages m " +
+    "WHERE m.senderid IS NOT NULL AND m.receiverid IS NOT NULL AND m.adid IS NOT NULL" +
+    ") t GROUP BY t.user_id, t.counterpart_id, t.adid";
+
+    String UPSERT_THREAD =
+    "INSERT INTO conversation (user_id, counterpart_id, adid, last_message_id, unread_count, updated_at) " +
+    "VALUES (?, ?, ?, ?, ?, now()) " +
+    "ON CONFLICT (user_id, counterpart_id, adid) DO UPDATE SET " +
+    "last_message_id = GREATEST(conversation.last_message_id, EXCLUDED.last_message_id), " +
+    "unread_count = conversation.unread_count + EXCLUDED.unread_count, " +
+    "updated_at = now()";
+    String MARK_READ =
+    "UPDATE conversation c SET last_read_message_id = GREATEST(c.last_read_message_id, ?), " +
+    "unread_count = (SELECT COUNT(*) FROM messages m WHERE m.adid = c.adid AND m.senderid = c.counterpart_id " +
+    "AND m.receiverid = c.user_id AND m.id > GREATEST(c.last_read_message_id, ?)) " +
+    "WHERE c.user_id = ? AND c.counterpart_id = ? AND c.adid = ?";
+
+    @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.lastMessage WHERE c.userId = :userId ORDER BY c.lastMessageId DESC")
+    List<Conversation> findInbox(String userId);
+
+    @Query("SELECT c.liveFromId AS liveFromId, c.lastMessageId AS lastMessageId FROM Conversation c " +
+    "WHERE c.userId = :userId AND c.counterpartId = :counterpartId AND c.adid = :adid")
+    Optional<ThreadBounds> findThreadBounds(String userId, String counterpartId, String adid);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO conversation (user_id, counterpart_id, adid, last_message_id, unread_count, updated_at) " +
+    "SELECT h.user_id, h.counterpart_id, h.adid, h.last_id, 0, now() FROM (" + THREAD_HEADS + ") h " +
+    "ON CONFLICT (user_id, counterpart_id, adid) DO UPDATE SET " +
+    "last_message_id = GREATEST(conversation.last_message_id, EXCLUDED.last_message_id)",
+    nativeQuery = true)
+    int backfillFromMessages();
+
+    @Query(value = "SELECT COUNT(*) FROM (" + THREAD_HEADS + ") h " +
+    "LEFT JOIN conversation c ON c.user_id = h.user_id AND c.counterpart_id = h.counterpart_id AND c.adid = h.adid " +
+    "WHERE c.id IS NULL OR c.last_message_id < h.last_id",
+    nativeQuery = true)
+    long countStaleThreads();
+
+    interface ThreadBounds {
+        Long getLiveFromId();
+        Long getLastMessageId();
+    }
+}
@@ -2,9 +2,20 @@ package com.example.thriftxbackend.repository;
 
 import com.example.thriftxbackend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-    
+    List<User> findByUsernameIn(Collection<String> usernames);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :upgraded WHERE u.id = :id AND u.password = :current")
+    int upgradePassword(Long id, String current, String upgraded);
 }
@@ -1,36 +1,200 @@
 package com.example.thriftxbackend.repository;
 
 
+import com.example.thriftxbackend.dto.AdFacetRow;
+import com.example.thriftxbackend.dto.AdSummaryRow;
 import com.example.thriftxbackend.entity.VehicleAd;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 public interface VehicleAdRepository extends JpaRepository<VehicleAd, Long> {
+    String AD_FILTERS =
+    "AND (:category IS NULL OR v.category_key = LOWER(:category)) " +
+    "AND (:location IS NULL OR v.location_key LIKE '%' || LOWER(:location) || '%') " +
+    "AND (:minPrice IS NULL OR v.price >= :minPrice) " +
+    "AND (:maxPrice IS NULL OR v.price <= :maxPrice)";
+    String PRICE_BUCKET_EDGE_LIST = "50000, 100000, 200000, 500000, 1000000, 2000000, 5000000";
+    String PRICE_BUCKET = "width_bucket(v.price, ARRAY[" + PRICE_BUCKET_EDGE_LIST + "])";
+    int[] PRICE_BUCKET_EDGES = Arrays.stream(PRICE_BUCKET_EDGE_LIST.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    String SUMMARY_COLUMNS =
+    "v.id AS id, v.title AS title, v.price AS price, v.category AS category, v.location AS location, " +
+    "v.year AS year, v.mileage AS mileage, v.username AS username, v.user_id AS \"userId\", " +
+    "v.image_url AS \"imageUrl\", v.image_key AS \"imageKey\"";
+    String SUBSTRING_MATCH =
+    "(CAST(:search AS text) IS NULL OR " +
+    "LOWER(v.title) LIKE LOWER('%' || CAST(:search AS text) || '%') OR " +
+    "LOWER(v.description) LIKE LOWER('%' || CAST(:search AS text) || '%') OR " +
+    "CAST(v.year AS text) LIKE '%' || CAST(:search AS text) || '%') ";
+    String SUBSTRING_FILTERS = SUBSTRING_MATCH + AD_FILTERS;
+    // tsQuery when full-text search is on, search (substring match) when it is off.
+    String FEED_FILTERS =
+    "AND (CAST(:tsQuery AS text) IS NULL OR v.search_vector @@ to_tsquery('simple', CAST(:tsQuery AS text))) " +
+    "AND " + SUBSTRING_MATCH +
+    AD_FILTERS;
+
+    String GEO_DISTANCE_KM =
+    "6371.0088 * 2 * ASIN(LEAST(1, SQRT(" +
+    "POWER(SIN(RADIANS(v.latitude - :centerLat) / 2), 2) + " +
+    "COS(RADIANS(:centerLat)) * COS(RADIANS(v.latitude)) * POWER(SIN(RADIANS(v.longitude - :centerLon) / 2), 2))))";
+    String GEO_FILTERS =
+    "v.geo <@ box(point(:minLon, :minLat), point(:maxLon, :maxLat)) " +
+    "AND (CAST(:radiusKm AS float8) IS NULL OR " + GEO_DISTANCE_KM + " <= CAST(:radiusKm AS float8)) " +
+    FEED_FILTERS;
+
     List<VehicleAd> findByUserUsername(String username);
     List<VehicleAd> findByCategory(String category);
     List<VehicleAd> findByLocation(String location);
-    List<VehicleAd> findByYear(String year);
-    List<VehicleAd> findByMileage(String mileage);
+    List<VehicleAd> findByYear(Integer year);
+    List<VehicleAd> findByMileage(Integer mileage);
     List<VehicleAd> findByUserId(Long user_id);
-    @Query(value = "SELECT * FROM vehicle_ad v WHERE " +
-    "(:search IS NULL OR " +
-    "LOWER(v.title) LIKE LOWER('%' || :search || '%') OR " +
-    "LOWER(v.description) LIKE LOWER('%' || :search || '%') OR " +
-    "v.year LIKE '%' || :search || '%') " +
-    "AND (:category IS NULL OR LOWER(v.category) = LOWER(:category)) " +
-    "AND (:location IS NULL OR LOWER(v.location) LIKE LOWER('%' || :location || '%')) " +
-    "AND (:minPrice IS NULL OR v.price >= :minPrice) " +
-    "AND (:maxPrice IS NULL OR v.price <= :maxPrice)",
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM vehicle_ad v",
+    countQuery = "SELECT COUNT(*) FROM vehicle_ad v",
+    nativeQuery = true)
+Page<AdSummaryRow> findSummaries(Pageable pageable);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM vehicle_ad v WHERE " + SUBSTRING_FILTERS,
+    countQuery = "SELECT COUNT(*) FROM vehicle_ad v WHERE " + SUBSTRING_FILTERS,
+    nativeQuery = true)
+Page<AdSummaryRow> searchVehicles(
+ @Param("search") String search,
+ @Param("category") String category,
+ @Param("location") String location,
+ @Param("minPrice") Integer minPrice,
+ @Param("maxPrice") Integer maxPrice,
+ Pageable pageable);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM vehicle_ad v WHERE " +
+    "v.search_vector @@ to_tsquery('simple', :tsQuery) " +
+    AD_FILTERS +
+    " ORDER BY ts_rank(v.search_vector, to_tsquery('simple', :tsQuery)) DESC, v.id DESC",
+    countQuery = "SELECT COUNT(*) FROM vehicle_ad v WHERE " +
+    "v.search_vector @@ to_tsquery('simple', :tsQuery) " +
+    AD_FILTERS,
+    nativeQuery = true)
+Page<AdSummaryRow> fullTextSearch(
+ @Param("tsQuery") String tsQuery,
+ @Param("category") String category,
+ @Param("location") String location,
+ @Param("minPrice") Integer minPrice,
+ @Param("maxPrice") Integer maxPrice,
+ Pageable pageable);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + ", " + GEO_DISTANCE_KM + " AS \"distanceKm\" FROM vehicle_ad v WHERE " +
+    GEO_FILTERS +
+    " ORDER BY \"distanceKm\", v.id DESC",
+    countQuery = "SELECT COUNT(*) FROM vehicle_ad v WHERE " + GEO_FILTERS,
+    nativeQuery = true)
+Page<AdSummaryRow> searchNearby(
+ @Param("centerLat") double centerLat,
+ @Param("centerLon") double centerLon,
+ @Param("minLat") double minLat,
+ @Param("minLon") double minLon,
+ @Param("maxLat") double maxLat,
+ @Param("maxLon") double maxLon,
+ @Param("radiusKm") Double radiusKm,
+ @Param("tsQuery") String tsQuery,
+ @Param("search") String search,
+ @Param("category") String category,
+ @Param("location") String location,
+ @Param("minPrice") Integer minPrice,
+ @Param("maxPrice") Integer maxPrice,
+ Pageable pageable);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM vehicle_ad v WHERE v.id < :afterId " +
+    FEED_FILTERS +
+    " ORDER BY v.id DESC",
+    nativeQuery = true)
+Slice<AdSummaryRow> seekNewest(
+ @Param("afterId") long afterId,
+ @Param("tsQuery") String tsQuery,
+ @Param("search") String search,
+ @Param("category") String category,
+ @Param("location") String location,
+ @Param("minPrice") Integer minPrice,
+ @Param("maxPrice") Integer maxPrice,
+ Pageable pageable);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM vehicle_ad v WHERE (v.price, v.id) > (:afterPrice, :afterId) " +
+    FEED_FILTERS +
+    " ORDER BY v.price ASC, v.id ASC",
     nativeQuery = true)
-Page<VehicleAd> searchVehicles(
- @Param("search") String search,   
+Slice<AdSummaryRow> seekByPrice(
+ @Param("afterPrice") int afterPrice,
+ @Param("afterId") long afterId,
+ @Param("tsQuery") String tsQuery,
+ @Param("search") String search,
  @Param("category") String category,
  @Param("location") String location,
  @Param("minPrice") Integer minPrice,
  @Param("maxPrice") Integer maxPrice,
  Pageable pageable);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM vehicle_ad v WHERE v.id IN (:ids)",
+    nativeQuery = true)
+List<AdSummaryRow> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT COUNT(*) FROM vehicle_ad v WHERE TRUE " + AD_FILTERS,
+    nativeQuery = true)
+long countAds(
+ @Param("category") String category,
+ @Param("location") String location,
+ @Param("minPrice") Integer minPrice,
+ @Param("maxPrice") Integer maxPrice);
+
+    @Query(value = "SELECT v.id, v.price FROM vehicle_ad v ORDER BY v.id DESC LIMIT :window",
+    nativeQuery = true)
+List<Object[]> findNewestPrices(@Param("window") int window);
+
+    @Query(value = "SELECT c.category_key, c.total, t.id, t.price " +
+    "FROM (SELECT v.category_key, COUNT(*) AS total FROM vehicle_ad v " +
+    "WHERE v.category_key IS NOT NULL GROUP BY v.category_key) c " +
+    "CROSS JOIN LATERAL (SELECT w.id, w.price FROM vehicle_ad w " +
+    "WHERE w.category_key = c.category_key ORDER BY w.id DESC LIMIT :window) t " +
+    "ORDER BY c.category_key, t.id DESC",
+    nativeQuery = true)
+List<Object[]> findNewestPricesByCategory(@Param("window") int window);
+
+    @Query(value = "SELECT DISTINCT v.location FROM vehicle_ad v WHERE v.latitude IS NULL AND v.location IS NOT NULL",
+    nativeQuery = true)
+List<String> findUngeocodedLocations();
+
+    @Query(value = "SELECT DISTINCT v.image_key FROM vehicle_ad v WHERE v.image_key IN (:keys)",
+    nativeQuery = true)
+List<String> findReferencedImageKeys(@Param("keys") Collection<String> keys);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE vehicle_ad SET latitude = :latitude, longitude = :longitude " +
+    "WHERE latitude IS NULL AND location = :location",
+    nativeQuery = true)
+int setCoordinates(@Param("location") String location, @Param("latitude") double latitude, @Param("longitude") double longitude);
+
+    @Query(value = "SELECT " +
+    "CASE WHEN GROUPING(v.category_key) = 0 THEN 'category' " +
+    "WHEN GROUPING(v.location_key) = 0 THEN 'location' " +
+    "WHEN GROUPING(" + PRICE_BUCKET + ") = 0 THEN 'price' ELSE 'total' END AS facet, " +
+    "CASE WHEN GROUPING(v.category_key) = 0 THEN MIN(v.category) " +
+    "WHEN GROUPING(v.location_key) = 0 THEN MIN(v.location) " +
+    "WHEN GROUPING(" + PRICE_BUCKET + ") = 0 THEN CAST(" + PRICE_BUCKET + " AS text) END AS value, " +
+    "COUNT(*) AS hits " +
+    "FROM vehicle_ad v WHERE TRUE " +
+    FEED_FILTERS +
+    " GROUP BY GROUPING SETS ((v.category_key), (v.location_key), (" + PRICE_BUCKET + "), ())",
+    nativeQuery = true)
+List<AdFacetRow> facetCounts(
+ @Param("tsQuery") String tsQuery,
+ @Param("search") String search,
+ @Param("category") String category,
+ @Param("location") String location,
+ @Param("minPrice") Integer minPrice,
+ @Param("maxPrice") Integer maxPrice);
+}
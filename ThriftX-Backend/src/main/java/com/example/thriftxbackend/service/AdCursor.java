@@ -0,0 +1,68 @@
+package com.example.thriftxbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.thriftxbackend.dto.AdSummaryDTO;
+
+final class AdCursor {
+
+    enum Sort { NEWEST, PRICE }
+
+    private final Sort sort;
+    private final long key;
+    private final long id;
+
+    private AdCursor(Sort sort, long key, long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    static AdCursor first(Sort sort) {
+        return sort == Sort.NEWEST
+                ? new AdCursor(sort, Long.MAX_VALUE, Long.MAX_VALUE)
+                : new AdCursor(sort, Integer.MIN_VALUE, 0);
+    }
+
+    static AdCursor after(Sort sort, AdSummaryDTO last) {
+        return sort == Sort.NEWEST
+                ? new AdCursor(sort, last.getId(), last.getId())
+                : new AdCursor(sort, last.getPrice(), last.getId());
+    }
+
+    static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("newest")) {
+            return Sort.NEWEST;
+        }
+        if (sort.equalsIgnoreCase("price")) {
+            return Sort.PRICE;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + sort);
+    }
+
+    static AdCursor decode(String cursor, Sort expected) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            Sort sort = Sort.valueOf(parts[0]);
+            if (parts.length != 3 || sort != expected) {
+                throw new IllegalArgumentException("Cursor does not match sort " + expected);
+            }
+            return new AdCursor(sort, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
+    String encode() {
+        String raw = sort.name() + ":" + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Sort getSort() { return sort; }
+    long getKey() { return key; }
+    long getId() { return id; }
+}
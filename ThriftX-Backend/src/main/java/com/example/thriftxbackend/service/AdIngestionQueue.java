@@ -0,0 +1,125 @@
+package com.example.thriftxbackend.service;
+
+import com.example.thriftxbackend.dto.VehicleAdResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class AdIngestionQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AdIngestionQueue.class);
+
+    private final VehicleAdService vehicleAdService;
+    private final LinkedBlockingQueue<VehicleAdResponseDTO> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final int capacity;
+    private final int batchSize;
+    private final Counter saved;
+    private final Counter skipped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AdIngestionQueue(VehicleAdService vehicleAdService,
+                            @Value("${thriftx.ingest.queue-capacity:20000}") int capacity,
+                            @Value("${thriftx.ingest.batch-size:500}") int batchSize,
+                            MeterRegistry meterRegistry) {
+        this.vehicleAdService = vehicleAdService;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.saved = Counter.builder("thriftx.ingest.ads").tag("outcome", "saved").register(meterRegistry);
+        this.skipped = Counter.builder("thriftx.ingest.ads").tag("outcome", "skipped").register(meterRegistry);
+        this.failed = Counter.builder("thriftx.ingest.ads").tag("outcome", "failed").register(meterRegistry);
+        Gauge.builder("thriftx.ingest.queue.size", reserved, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public boolean offer(List<VehicleAdResponseDTO> ads) {
+        if (!running) {
+            return false;
+        }
+        int current;
+        do {
+            current = reserved.get();
+            if (current + ads.size() > capacity) {
+                return false;
+            }
+        } while (!reserved.compareAndSet(current, current + ads.size()));
+        queue.addAll(ads);
+        return true;
+    }
+
+    public int size() {
+        return reserved.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "ad-ingest");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<VehicleAdResponseDTO> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                VehicleAdResponseDTO first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                reserved.addAndGet(-batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<VehicleAdResponseDTO> batch) {
+        try {
+            int count = vehicleAdService.saveAds(batch);
+            saved.increment(count);
+            skipped.increment(batch.size() - count);
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Failed to ingest batch of {} ads", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.thriftxbackend.service;
+
+import com.example.thriftxbackend.entity.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+
+@Service
+public class ChatPushService {
+
+    public static final String USER_QUEUE = "/queue/messages";
+    public static final String ERROR_QUEUE = "/queue/errors";
+
+    private static final Logger log = LoggerFactory.getLogger(ChatPushService.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public ChatPushService(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSaved(MessageSavedEvent event) {
+        Message message = event.getMessage();
+        if (message.getReceiverid() != null) {
+            push(message.getReceiverid(), message);
+        }
+        if (message.getSenderid() != null && !message.getSenderid().equals(message.getReceiverid())) {
+            push(message.getSenderid(), message);
+        }
+    }
+
+    /**
+     * Tells a socket client its message was not accepted and when it may send again.
+     */
+    public void pushError(String userId, String error, long retryAfterMs) {
+        try {
+            messagingTemplate.convertAndSendToUser(userId, ERROR_QUEUE,
+                    Map.of("error", error, "retryAfterMs", retryAfterMs));
+        } catch (MessagingException e) {
+            log.warn("Dropped chat error for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void push(String userId, Message message) {
+        try {
+            messagingTemplate.convertAndSendToUser(userId, USER_QUEUE, message);
+        } catch (MessagingException e) {
+            log.warn("Dropped chat push for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
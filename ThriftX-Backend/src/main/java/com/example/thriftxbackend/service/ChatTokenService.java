@@ -0,0 +1,90 @@
+package com.example.thriftxbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Issues and verifies the signed token a client presents when it opens the chat socket. The
+ * token is "userId.expiresAtEpochSecond.signature", signed with HMAC-SHA256 over the first two
+ * parts, so any pod sharing thriftx.chat.token-secret can verify it without a lookup.
+ */
+@Service
+public class ChatTokenService {
+
+    static final String DEV_SECRET = "dev-only-change-me";
+
+    private static final Logger log = LoggerFactory.getLogger(ChatTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public ChatTokenService(@Value("${thriftx.chat.token-secret:" + DEV_SECRET + "}") String secret,
+                            @Value("${thriftx.chat.token-ttl-hours:24}") long ttlHours) {
+        this(secret, Duration.ofHours(ttlHours), Clock.systemUTC());
+    }
+
+    ChatTokenService(String secret, Duration ttl, Clock clock) {
+        if (DEV_SECRET.equals(secret)) {
+            log.warn("thriftx.chat.token-secret is the development default; set CHAT_TOKEN_SECRET in production");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public String issue(String userId) {
+        String payload = userId + "." + clock.instant().plus(ttl).getEpochSecond();
+        return payload + "." + sign(payload);
+    }
+
+    /**
+     * Returns the user id the token was issued to, or null when it is malformed, forged or expired.
+     */
+    public String verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        int expiryStart = signatureStart < 0 ? -1 : token.lastIndexOf('.', signatureStart - 1);
+        if (expiryStart <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, signatureStart);
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, token.substring(signatureStart + 1).getBytes(StandardCharsets.US_ASCII))) {
+            return null;
+        }
+        try {
+            long expiresAt = Long.parseLong(token.substring(expiryStart + 1, signatureStart));
+            return clock.instant().getEpochSecond() < expiresAt ? token.substring(0, expiryStart) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.thriftxbackend.service;
+
+import com.example.thriftxbackend.repository.ConversationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ConversationBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversationBackfill.class);
+
+    private final ConversationRepository conversationRepository;
+    private final boolean backfillOnStartup;
+    private final boolean verifyOnStartup;
+
+    public ConversationBackfill(ConversationRepository conversationRepository,
+                                @Value("${thriftx.inbox.backfill-on-startup:false}") boolean backfillOnStartup,
+                                @Value("${thriftx.inbox.verify-on-startup:false}") boolean verifyOnStartup) {
+        this.conversationRepository = conversationRepository;
+        this.backfillOnStartup = backfillOnStartup;
+        this.verifyOnStartup = verifyOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            log.info("Backfilled {} inbox rows from messages", backfill());
+        }
+        if (verifyOnStartup) {
+            long stale = countStaleThreads();
+            if (stale > 0) {
+                log.warn("Inbox is missing or behind on {} threads; run with thriftx.inbox.backfill-on-startup=true", stale);
+            } else {
+                log.info("Inbox is consistent with messages");
+            }
+        }
+    }
+
+    public int backfill() {
+        return conversationRepository.backfillFromMessages();
+    }
+
+    public long countStaleThreads() {
+        return conversationRepository.countStaleThreads();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.thriftxbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves free-text ad locations such as "Kochi, Kerala" to coordinates using a local
+ * place-name file, so posting an ad never waits on an external geocoder.
+ */
+@Component
+public class Gazetteer {
+
+    private static final Logger log = LoggerFactory.getLogger(Gazetteer.class);
+
+    private final Map<String, double[]> places = new HashMap<>();
+
+    public Gazetteer(@Value("${thriftx.geo.gazetteer:classpath:gazetteer/places.csv}") Resource resource) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length == 3) {
+                    places.put(normalize(fields[0]),
+                            new double[] {Double.parseDouble(fields[1]), Double.parseDouble(fields[2])});
+                }
+            }
+        }
+        log.info("Loaded {} gazetteer places from {}", places.size(), resource.getDescription());
+    }
+
+    /**
+     * Returns {latitude, longitude} for the first comma-separated part of the location that is a
+     * known place, or null when nothing matches.
+     */
+    public double[] locate(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        double[] exact = places.get(normalize(location));
+        if (exact != null) {
+            return exact;
+        }
+        for (String part : location.split(",")) {
+            double[] match = places.get(normalize(part));
+            if (match != null) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.thriftxbackend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public record GeoArea(double minLat, double minLon, double maxLat, double maxLon,
+                      double centerLat, double centerLon, Double radiusKm) {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double MAX_RADIUS_KM = 500;
+
+    public static GeoArea around(double lat, double lon, double radiusKm) {
+        requireCoordinate(lat, lon);
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radiusKm must be between 0 and " + (int) MAX_RADIUS_KM);
+        }
+        double latDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = Math.max(-90, lat - latDelta);
+        double maxLat = Math.min(90, lat + latDelta);
+        if (minLat == -90 || maxLat == 90) {
+            return new GeoArea(minLat, -180, maxLat, 180, lat, lon, radiusKm);
+        }
+        double lonDelta = latDelta / Math.cos(Math.toRadians(lat));
+        return new GeoArea(minLat, Math.max(-180, lon - lonDelta), maxLat, Math.min(180, lon + lonDelta),
+                lat, lon, radiusKm);
+    }
+
+    public static GeoArea box(double minLat, double minLon, double maxLat, double maxLon) {
+        requireCoordinate(minLat, minLon);
+        requireCoordinate(maxLat, maxLon);
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bounding box corners are out of order");
+        }
+        return new GeoArea(minLat, minLon, maxLat, maxLon, (minLat + maxLat) / 2, (minLon + maxLon) / 2, null);
+    }
+
+    /**
+     * Builds the area from request parameters: a centre with radiusKm, or all four box edges.
+     * Returns null when no geo parameter is present.
+     */
+    public static GeoArea fromRequest(Double lat, Double lon, Double radiusKm,
+                                      Double minLat, Double minLon, Double maxLat, Double maxLon) {
+        boolean anyCircle = lat != null || lon != null || radiusKm != null;
+        boolean anyBox = minLat != null || minLon != null || maxLat != null || maxLon != null;
+        if (anyCircle && anyBox) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Use either lat/lon/radiusKm or a bounding box, not both");
+        }
+        if (anyCircle) {
+            if (lat == null || lon == null || radiusKm == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat, lon and radiusKm are required together");
+            }
+            return around(lat, lon, radiusKm);
+        }
+        if (anyBox) {
+            if (minLat == null || minLon == null || maxLat == null || maxLon == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minLat, minLon, maxLat and maxLon are required together");
+            }
+            return box(minLat, minLon, maxLat, maxLon);
+        }
+        return null;
+    }
+
+    public static boolean isValidCoordinate(Double lat, Double lon) {
+        return lat != null && lon != null && lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180;
+    }
+
+    private static void requireCoordinate(double lat, double lon) {
+        if (!isValidCoordinate(lat, lon)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coordinates are out of range");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.thriftxbackend.service;
+
+import com.example.thriftxbackend.repository.VehicleAdRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GeoBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GeoBackfill.class);
+
+    private final VehicleAdRepository vehicleAdRepository;
+    private final Gazetteer gazetteer;
+    private final boolean backfillOnStartup;
+
+    public GeoBackfill(VehicleAdRepository vehicleAdRepository, Gazetteer gazetteer,
+                       @Value("${thriftx.geo.backfill-on-startup:false}") boolean backfillOnStartup) {
+        this.vehicleAdRepository = vehicleAdRepository;
+        this.gazetteer = gazetteer;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            log.info("Geocoded {} ads from the gazetteer", backfill());
+        }
+    }
+
+    public int backfill() {
+        int updated = 0;
+        for (String location : vehicleAdRepository.findUngeocodedLocations()) {
+            double[] place = gazetteer.locate(location);
+            if (place != null) {
+                updated += vehicleAdRepository.setCoordinates(location, place[0], place[1]);
+            }
+        }
+        return updated;
+    }
+}
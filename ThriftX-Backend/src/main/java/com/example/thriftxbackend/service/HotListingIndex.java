@@ -0,0 +1,371 @@
+package com.example.thriftxbackend.service;
+
+import com.example.thriftxbackend.entity.VehicleAd;
+import com.example.thriftxbackend.repository.VehicleAdRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Newest-first window of ad ids and prices for the whole catalogue and for every category,
+ * held in parallel primitive arrays. Readers see an immutable snapshot; writers copy the
+ * affected window and publish a new snapshot. With thriftx.hot-index.store=redis every saved ad
+ * is also broadcast to the other pods, so their windows pick it up without waiting for a rebuild.
+ */
+@Component
+public class HotListingIndex implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(HotListingIndex.class);
+    private static final int NO_PRICE = Integer.MIN_VALUE;
+    private static final Window EMPTY = new Window(new long[0], new int[0], 0, true);
+    private static final String CHANNEL = "thriftx:hot-index:added";
+
+    private final VehicleAdRepository vehicleAdRepository;
+    private final boolean enabled;
+    private final boolean rebuildOnStartup;
+    private final int windowSize;
+    private final Counter memoryHits;
+    private final Counter fallbacks;
+    private final Timer rebuildTimer;
+    private final TransactionTemplate snapshotTransaction;
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listener;
+    private final String origin = UUID.randomUUID().toString();
+
+    private volatile Snapshot snapshot;
+    private List<PendingAd> replay;
+
+    public HotListingIndex(VehicleAdRepository vehicleAdRepository,
+                           @Value("${thriftx.hot-index.enabled:true}") boolean enabled,
+                           @Value("${thriftx.hot-index.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                           @Value("${thriftx.hot-index.window-size:1000}") int windowSize,
+                           @Value("${thriftx.hot-index.store:local}") String store,
+                           PlatformTransactionManager transactionManager,
+                           ObjectProvider<StringRedisTemplate> redisTemplate,
+                           MeterRegistry meterRegistry) {
+        this.vehicleAdRepository = vehicleAdRepository;
+        this.enabled = enabled;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.windowSize = windowSize;
+        this.memoryHits = Counter.builder("thriftx.hot.index.requests").tag("outcome", "memory").register(meterRegistry);
+        this.fallbacks = Counter.builder("thriftx.hot.index.requests").tag("outcome", "fallback").register(meterRegistry);
+        this.rebuildTimer = Timer.builder("thriftx.hot.index.rebuild").register(meterRegistry);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setReadOnly(true);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.redis = enabled && store.equalsIgnoreCase("redis") ? redisTemplate.getObject() : null;
+        this.listener = redis == null ? null : listener(redis);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            subscribe();
+        }
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${thriftx.hot-index.initial-delay-ms:${thriftx.hot-index.rebuild-ms:60000}}",
+               fixedDelayString = "${thriftx.hot-index.rebuild-ms:60000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        subscribe();
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        try {
+            // One repeatable-read transaction, so the counts and ids come from the same snapshot.
+            Snapshot loaded = snapshotTransaction.execute(status -> new Snapshot(loadAll(), loadCategories()));
+            synchronized (this) {
+                Snapshot rebuilt = loaded;
+                for (PendingAd ad : replay) {
+                    rebuilt = rebuilt.with(ad.id(), ad.price(), ad.category(), windowSize);
+                }
+                snapshot = rebuilt;
+            }
+            log.debug("Rebuilt hot listing index: {} categories, {} ads overall",
+                    loaded.byCategory.size(), loaded.all.total);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Hot listing index rebuild failed, keeping previous snapshot: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                replay = null;
+            }
+            rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Adds a freshly saved ad, after the surrounding transaction commits when there is one.
+     */
+    public void add(VehicleAd ad) {
+        if (!enabled || ad.getId() == null) {
+            return;
+        }
+        long id = ad.getId();
+        int price = ad.getPrice() == null ? NO_PRICE : ad.getPrice();
+        String category = categoryKey(ad.getCategory());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(id, price, category);
+                    broadcast(id, price, category);
+                }
+            });
+        } else {
+            publish(id, price, category);
+            broadcast(id, price, category);
+        }
+    }
+
+    /**
+     * Answers a newest-first page for an optional category and price range, or returns null
+     * when the page lies beyond the in-memory window and the caller must ask the database.
+     */
+    public Page query(String category, Integer minPrice, Integer maxPrice, int page, int size) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            fallbacks.increment();
+            return null;
+        }
+        Window window = category == null ? current.all : current.byCategory.getOrDefault(categoryKey(category), EMPTY);
+        long offset = (long) page * size;
+        Page result = minPrice == null && maxPrice == null
+                ? window.slice(offset, size)
+                : window.filter(offset, size, minPrice == null ? Integer.MIN_VALUE + 1 : minPrice,
+                                maxPrice == null ? Integer.MAX_VALUE : maxPrice);
+        (result == null ? fallbacks : memoryHits).increment();
+        return result;
+    }
+
+    private synchronized void publish(long id, int price, String category) {
+        if (snapshot != null) {
+            snapshot = snapshot.with(id, price, category, windowSize);
+        }
+        if (replay != null) {
+            replay.add(new PendingAd(id, price, category));
+        }
+    }
+
+    private void broadcast(long id, int price, String category) {
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.convertAndSend(CHANNEL, origin + "," + id + "," + price + "," + (category == null ? "" : category));
+        } catch (DataAccessException e) {
+            log.debug("Could not broadcast hot listing {}, other pods pick it up on rebuild: {}", id, e.getMessage());
+        }
+    }
+
+    private RedisMessageListenerContainer listener(StringRedisTemplate redis) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redis.getRequiredConnectionFactory());
+        container.addMessageListener((message, pattern) -> received(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANNEL));
+        container.afterPropertiesSet();
+        return container;
+    }
+
+    /**
+     * Subscribes to other pods' broadcasts. A pod that cannot reach Redis keeps serving its own
+     * window and tries again on the next rebuild.
+     */
+    private void subscribe() {
+        if (listener == null || listener.isListening()) {
+            return;
+        }
+        try {
+            listener.start();
+        } catch (RuntimeException e) {
+            listener.stop();
+            log.warn("Could not subscribe to hot listing broadcasts, retrying on next rebuild: {}", e.getMessage());
+        }
+    }
+
+    void received(String message) {
+        String[] fields = message.split(",", 4);
+        if (fields.length < 4 || fields[0].equals(origin)) {
+            return;
+        }
+        try {
+            publish(Long.parseLong(fields[1]), Integer.parseInt(fields[2]), fields[3].isEmpty() ? null : fields[3]);
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed hot listing broadcast: {}", message);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (listener != null) {
+            listener.destroy();
+        }
+    }
+
+    private Window loadAll() {
+        List<Object[]> rows = vehicleAdRepository.findNewestPrices(windowSize);
+        long total = vehicleAdRepository.count();
+        long[] ids = new long[rows.size()];
+        int[] prices = new int[rows.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) rows.get(i)[0]).longValue();
+            prices[i] = toPrice(rows.get(i)[1]);
+        }
+        return new Window(ids, prices, total, total <= ids.length);
+    }
+
+    private Map<String, Window> loadCategories() {
+        Map<String, List<Object[]>> grouped = new HashMap<>();
+        for (Object[] row : vehicleAdRepository.findNewestPricesByCategory(windowSize)) {
+            grouped.computeIfAbsent((String) row[0], key -> new ArrayList<>()).add(row);
+        }
+        Map<String, Window> windows = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((category, rows) -> {
+            long total = ((Number) rows.get(0)[1]).longValue();
+            long[] ids = new long[rows.size()];
+            int[] prices = new int[rows.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = ((Number) rows.get(i)[2]).longValue();
+                prices[i] = toPrice(rows.get(i)[3]);
+            }
+            windows.put(category, new Window(ids, prices, total, total <= ids.length));
+        });
+        return windows;
+    }
+
+    private static int toPrice(Object value) {
+        return value == null ? NO_PRICE : ((Number) value).intValue();
+    }
+
+    private static String categoryKey(String category) {
+        return category == null || category.isBlank() ? null : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Ids of one page, newest first. total is null when only the database can count the matches.
+     */
+    public record Page(long[] ids, Long total) {
+    }
+
+    private record PendingAd(long id, int price, String category) {
+    }
+
+    private record Snapshot(Window all, Map<String, Window> byCategory) {
+
+        Snapshot with(long id, int price, String category, int capacity) {
+            Map<String, Window> categories = byCategory;
+            if (category != null) {
+                categories = new HashMap<>(byCategory);
+                categories.put(category, categories.getOrDefault(category, EMPTY).with(id, price, capacity));
+            }
+            return new Snapshot(all.with(id, price, capacity), categories);
+        }
+    }
+
+    private static final class Window {
+        private final long[] ids;
+        private final int[] prices;
+        private final long total;
+        private final boolean complete;
+
+        Window(long[] ids, int[] prices, long total, boolean complete) {
+            this.ids = ids;
+            this.prices = prices;
+            this.total = total;
+            this.complete = complete;
+        }
+
+        Window with(long id, int price, int capacity) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ids[middle] > id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            int position = low;
+            if (position < ids.length && ids[position] == id) {
+                return this;
+            }
+            if (position >= capacity) {
+                return new Window(ids, prices, total + 1, false);
+            }
+            int length = Math.min(ids.length + 1, capacity);
+            long[] newIds = new long[length];
+            int[] newPrices = new int[length];
+            System.arraycopy(ids, 0, newIds, 0, position);
+            System.arraycopy(prices, 0, newPrices, 0, position);
+            newIds[position] = id;
+            newPrices[position] = price;
+            System.arraycopy(ids, position, newIds, position + 1, length - position - 1);
+            System.arraycopy(prices, position, newPrices, position + 1, length - position - 1);
+            return new Window(newIds, newPrices, total + 1, complete && length == ids.length + 1);
+        }
+
+        Page slice(long offset, int size) {
+            if (offset + size > ids.length && !complete) {
+                return null;
+            }
+            int from = (int) Math.min(offset, ids.length);
+            int to = (int) Math.min(offset + size, ids.length);
+            return new Page(Arrays.copyOfRange(ids, from, to), total);
+        }
+
+        Page filter(long offset, int size, int minPrice, int maxPrice) {
+            long[] page = new long[size];
+            int collected = 0;
+            long matched = 0;
+            for (int i = 0; i < ids.length; i++) {
+                int price = prices[i];
+                if (price >= minPrice && price <= maxPrice) {
+                    if (matched >= offset && collected < size) {
+                        page[collected++] = ids[i];
+                    }
+                    matched++;
+                }
+            }
+            if (collected < size && !complete) {
+                return null;
+            }
+            return new Page(Arrays.copyOf(page, collected), complete ? matched : null);
+        }
+    }
+}
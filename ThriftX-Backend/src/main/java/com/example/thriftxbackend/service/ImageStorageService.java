@@ -0,0 +1,320 @@
+package com.example.thriftxbackend.service;
+
+import com.example.thriftxbackend.dto.ImageUploadDTO;
+import com.example.thriftxbackend.repository.VehicleAdRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Service
+public class ImageStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageStorageService.class);
+    private static final Pattern IMAGE_KEY = Pattern.compile("[0-9a-f]{32}");
+    private static final String ORIGINAL = "original";
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final Path root;
+    private final long maxPixels;
+    private final VehicleAdRepository vehicleAdRepository;
+    private final Duration orphanGrace;
+    private final int orphanBatchSize;
+    private final ThreadPoolExecutor resizePool;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Timer resizeTimer;
+    private final Counter failures;
+    private final Counter orphansDeleted;
+
+    public ImageStorageService(@Value("${thriftx.images.dir:uploads/images}") String dir,
+                               @Value("${thriftx.images.max-pixels:40000000}") long maxPixels,
+                               @Value("${thriftx.images.resize-threads:2}") int resizeThreads,
+                               @Value("${thriftx.images.resize-queue-capacity:200}") int queueCapacity,
+                               @Value("${thriftx.images.orphan-grace-hours:24}") long orphanGraceHours,
+                               @Value("${thriftx.images.orphan-batch-size:500}") int orphanBatchSize,
+                               VehicleAdRepository vehicleAdRepository,
+                               MeterRegistry meterRegistry) throws IOException {
+        this.root = Files.createDirectories(Path.of(dir)).toAbsolutePath();
+        this.maxPixels = maxPixels;
+        this.vehicleAdRepository = vehicleAdRepository;
+        this.orphanGrace = Duration.ofHours(orphanGraceHours);
+        this.orphanBatchSize = Math.max(1, orphanBatchSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.resizePool = new ThreadPoolExecutor(resizeThreads, resizeThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-resize-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.resizeTimer = Timer.builder("thriftx.images.resize").register(meterRegistry);
+        this.failures = Counter.builder("thriftx.images.resize.failures").register(meterRegistry);
+        this.orphansDeleted = Counter.builder("thriftx.images.orphans.deleted").register(meterRegistry);
+        Gauge.builder("thriftx.images.resize.queue.size", resizePool, pool -> pool.getQueue().size()).register(meterRegistry);
+    }
+
+    public ImageUploadDTO store(byte[] bytes) {
+        probe(bytes);
+        String key = keyOf(bytes);
+        Path directory = root.resolve(key);
+        try {
+            Files.createDirectories(directory);
+            Path original = directory.resolve(ORIGINAL);
+            if (!Files.exists(original)) {
+                writeAtomically(original, bytes);
+            } else {
+                Files.setLastModifiedTime(original, FileTime.from(Instant.now()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        boolean ready = variantsReady(key);
+        if (!ready && inFlight.add(key)) {
+            try {
+                resizePool.execute(() -> resize(key));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Image processing is busy, retry later");
+            }
+        }
+        return new ImageUploadDTO(key, ready, ImageVariant.urls(key));
+    }
+
+    /**
+     * Deletes uploads that no ad references once they are older than the grace period. A repeat
+     * upload of the same image restarts its grace period.
+     */
+    @Scheduled(cron = "${thriftx.images.orphan-sweep-cron:0 15 4 * * *}")
+    public void sweepOrphans() {
+        Instant cutoff = Instant.now().minus(orphanGrace);
+        List<String> candidates = new ArrayList<>();
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(root)) {
+            for (Path directory : directories) {
+                String key = directory.getFileName().toString();
+                if (isValidKey(key) && isOrphanCandidate(key, cutoff)) {
+                    candidates.add(key);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list images for the orphan sweep: {}", e.getMessage());
+            return;
+        }
+        int deleted = 0;
+        for (int from = 0; from < candidates.size(); from += orphanBatchSize) {
+            List<String> batch = candidates.subList(from, Math.min(candidates.size(), from + orphanBatchSize));
+            Set<String> referenced;
+            try {
+                referenced = new HashSet<>(vehicleAdRepository.findReferencedImageKeys(batch));
+            } catch (DataAccessException e) {
+                log.warn("Orphan image sweep stopped, could not read image references: {}", e.getMessage());
+                break;
+            }
+            for (String key : batch) {
+                if (!referenced.contains(key) && isOrphanCandidate(key, cutoff) && deleteUpload(key)) {
+                    deleted++;
+                }
+            }
+        }
+        orphansDeleted.increment(deleted);
+        if (deleted > 0) {
+            log.info("Deleted {} orphaned image uploads", deleted);
+        }
+    }
+
+    private boolean isOrphanCandidate(String key, Instant cutoff) {
+        if (inFlight.contains(key)) {
+            return false;
+        }
+        Path directory = root.resolve(key);
+        Path original = directory.resolve(ORIGINAL);
+        try {
+            Path stamped = Files.exists(original) ? original : directory;
+            return Files.getLastModifiedTime(stamped).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean deleteUpload(String key) {
+        try (Stream<Path> files = Files.walk(root.resolve(key))) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to delete orphaned image {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    public Path variantPath(String key, ImageVariant variant) {
+        return isValidKey(key) ? root.resolve(key).resolve(variant.fileName()) : null;
+    }
+
+    public Path originalPath(String key) {
+        return isValidKey(key) ? root.resolve(key).resolve(ORIGINAL) : null;
+    }
+
+    public static boolean isValidKey(String key) {
+        return key != null && IMAGE_KEY.matcher(key).matches();
+    }
+
+    private boolean variantsReady(String key) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!Files.exists(variantPath(key, variant))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void probe(byte[] bytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Image dimensions are too large");
+                }
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable image");
+        }
+    }
+
+    private void resize(String key) {
+        long start = System.nanoTime();
+        try {
+            BufferedImage source = ImageIO.read(originalPath(key).toFile());
+            if (source == null) {
+                throw new IOException("No decoder for " + key);
+            }
+            ImageVariant[] variants = ImageVariant.values();
+            for (int i = variants.length - 1; i >= 0; i--) {
+                source = scale(source, variants[i].maxWidth());
+                Path target = variantPath(key, variants[i]);
+                if (!Files.exists(target)) {
+                    Path temp = Files.createTempFile(target.getParent(), variants[i].key(), ".tmp");
+                    writeJpeg(source, temp);
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            resizeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            log.warn("Failed to resize image {}: {}", key, e.getMessage());
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    static BufferedImage scale(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round(source.getHeight() * (width / (double) source.getWidth())));
+        BufferedImage current = source;
+        int stepWidth = source.getWidth();
+        int stepHeight = source.getHeight();
+        do {
+            stepWidth = Math.max(width, stepWidth / 2);
+            stepHeight = Math.max(height, stepHeight / 2);
+            BufferedImage next = new BufferedImage(stepWidth, stepHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, stepWidth, stepHeight);
+            graphics.drawImage(current, 0, 0, stepWidth, stepHeight, null);
+            graphics.dispose();
+            current = next;
+        } while (stepWidth != width || stepHeight != height);
+        return current;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ORIGINAL, ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String keyOf(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        resizePool.shutdown();
+        resizePool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.thriftxbackend.service;
+
+import java.util.LinkedHashMap;
+
+public enum ImageVariant {
+    THUMB("thumb", 240),
+    MEDIUM("medium", 640),
+    LARGE("large", 1280);
+
+    public static final String URL_PREFIX = "/images/";
+
+    private final String key;
+    private final int maxWidth;
+
+    ImageVariant(String key, int maxWidth) {
+        this.key = key;
+        this.maxWidth = maxWidth;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int maxWidth() {
+        return maxWidth;
+    }
+
+    public String fileName() {
+        return key + ".jpg";
+    }
+
+    public String url(String imageKey) {
+        return URL_PREFIX + imageKey + "/" + fileName();
+    }
+
+    public static ImageVariant fromKey(String key) {
+        for (ImageVariant variant : values()) {
+            if (variant.key.equals(key)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    public static LinkedHashMap<String, String> urls(String imageKey) {
+        LinkedHashMap<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : values()) {
+            urls.put(variant.key, variant.url(imageKey));
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.thriftxbackend.service;
+
+import com.example.thriftxbackend.entity.Message;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class MessageArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageArchiveService.class);
+    private static final TypeReference<List<Message>> MESSAGES = new TypeReference<>() {};
+    private static final String THREAD =
+    "m.adid = ? AND ((m.senderid = ? AND m.receiverid = ?) OR (m.senderid = ? AND m.receiverid = ?))";
+    private static final String EXPIRED_BELOW = "SELECT COALESCE(MAX(id), 0) + 1 FROM messages WHERE created_at < ?";
+    private static final String EXPIRED_THREADS =
+    "SELECT DISTINCT LEAST(m.senderid, m.receiverid) AS user_a, GREATEST(m.senderid, m.receiverid) AS user_b, m.adid " +
+    "FROM messages m WHERE m.id < ? AND m.senderid IS NOT NULL AND m.receiverid IS NOT NULL AND m.adid IS NOT NULL " +
+    "LIMIT ?";
+    private static final String ORPHANED_THREADS =
+    "SELECT DISTINCT LEAST(c.user_id, c.counterpart_id) AS user_a, GREATEST(c.user_id, c.counterpart_id) AS user_b, " +
+    "c.adid, c.last_message_id FROM conversation c JOIN messages head ON head.id = c.last_message_id " +
+    "WHERE NOT EXISTS (SELECT 1 FROM vehicle_ad v WHERE CAST(v.id AS text) = c.adid) " +
+    "LIMIT ?";
+    private static final String ADVANCE_LIVE_FROM =
+    "UPDATE conversation SET live_from_id = GREATEST(live_from_id, ?) WHERE adid = ? " +
+    "AND ((user_id = ? AND counterpart_id = ?) OR (user_id = ? AND counterpart_id = ?))";
+    private static final String INSERT_ARCHIVE =
+    "INSERT INTO message_archive (adid, user_a, user_b, first_message_id, last_message_id, message_count, " +
+    "last_senderid, last_receiverid, last_content, payload) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final RowMapper<Message> MESSAGE_ROW = (rs, rowNum) -> {
+        Message message = new Message();
+        message.setId(rs.getLong("id"));
+        message.setSenderid(rs.getString("senderid"));
+        message.setReceiverid(rs.getString("receiverid"));
+        message.setAdid(rs.getString("adid"));
+        message.setContent(rs.getString("content"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        message.setCreatedAt(createdAt == null ? null : createdAt.toInstant());
+        return message;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration archiveAfter;
+    private final int threadsPerRun;
+    private final Counter archivedThreads;
+    private final Counter archivedMessages;
+
+    public MessageArchiveService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${thriftx.chat.archive.after-days:180}") long archiveAfterDays,
+                                 @Value("${thriftx.chat.archive.threads-per-run:500}") int threadsPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.archiveAfter = Duration.ofDays(archiveAfterDays);
+        this.threadsPerRun = threadsPerRun;
+        this.archivedThreads = Counter.builder("thriftx.chat.archive.threads").register(meterRegistry);
+        this.archivedMessages = Counter.builder("thriftx.chat.archive.messages").register(meterRegistry);
+    }
+
+    /**
+     * Moves every message older than the cutoff into message_archive, thread by thread, heads
+     * included, so whole id ranges empty out and MessagePartitionMaintainer can drop them. Threads
+     * whose ad is gone are archived up to their latest message whatever its age.
+     */
+    @Scheduled(cron = "${thriftx.chat.archive.cron:0 30 3 * * *}")
+    public void archiveColdThreads() {
+        Long expiredBelow = jdbcTemplate.queryForObject(EXPIRED_BELOW, Long.class,
+                Timestamp.from(Instant.now().minus(archiveAfter)));
+        List<ColdThread> threads = new ArrayList<>(jdbcTemplate.query(EXPIRED_THREADS,
+                (rs, rowNum) -> new ColdThread(rs.getString("user_a"), rs.getString("user_b"),
+                        rs.getString("adid"), expiredBelow),
+                expiredBelow, threadsPerRun));
+        threads.addAll(jdbcTemplate.query(ORPHANED_THREADS,
+                (rs, rowNum) -> new ColdThread(rs.getString("user_a"), rs.getString("user_b"),
+                        rs.getString("adid"), rs.getLong("last_message_id") + 1),
+                threadsPerRun));
+        int archived = 0;
+        for (ColdThread thread : threads) {
+            try {
+                archived += archiveThread(thread);
+            } catch (DataAccessException | UncheckedIOException e) {
+                log.warn("Failed to archive thread {}/{}/{}: {}", thread.adid(), thread.userA(), thread.userB(), e.getMessage());
+            }
+        }
+        if (!threads.isEmpty()) {
+            log.info("Archived {} messages from {} cold threads", archived, threads.size());
+        }
+    }
+
+    public List<Message> findArchivedMessages(String user1, String user2, String adid) {
+        String userA = user1.compareTo(user2) <= 0 ? user1 : user2;
+        String userB = userA.equals(user1) ? user2 : user1;
+        List<byte[]> payloads = jdbcTemplate.queryForList(
+                "SELECT payload FROM message_archive WHERE adid = ? AND user_a = ? AND user_b = ? ORDER BY last_message_id",
+                byte[].class, adid, userA, userB);
+        List<Message> messages = new ArrayList<>();
+        for (byte[] payload : payloads) {
+            messages.addAll(decode(payload));
+        }
+        return messages;
+    }
+
+    /**
+     * Returns the archived copy of each given inbox head, keyed by message id, for threads whose
+     * latest message has itself been archived.
+     */
+    public Map<Long, Message> findArchivedHeads(Collection<Long> messageIds) {
+        Map<Long, Message> heads = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement("SELECT last_message_id, adid, last_senderid, last_receiverid, last_content " +
+                    "FROM message_archive WHERE last_message_id = ANY(?) AND last_senderid IS NOT NULL");
+            statement.setArray(1, con.createArrayOf("bigint", messageIds.toArray()));
+            return statement;
+        }, rs -> {
+            Message head = new Message();
+            head.setId(rs.getLong("last_message_id"));
+            head.setAdid(rs.getString("adid"));
+            head.setSenderid(rs.getString("last_senderid"));
+            head.setReceiverid(rs.getString("last_receiverid"));
+            head.setContent(rs.getString("last_content"));
+            heads.put(head.getId(), head);
+        });
+        return heads;
+    }
+
+    int archiveThread(ColdThread thread) {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Message> messages = jdbcTemplate.query(
+                    "SELECT m.id, m.senderid, m.receiverid, m.adid, m.content, m.created_at FROM messages m WHERE " + THREAD +
+                    " AND m.id < ? ORDER BY m.id FOR UPDATE",
+                    MESSAGE_ROW, thread.adid(), thread.userA(), thread.userB(), thread.userB(), thread.userA(), thread.upTo());
+            if (messages.isEmpty()) {
+                return 0;
+            }
+            Long[] ids = new Long[messages.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = messages.get(i).getId();
+            }
+            Message last = messages.get(messages.size() - 1);
+            jdbcTemplate.update(INSERT_ARCHIVE, thread.adid(), thread.userA(), thread.userB(),
+                    ids[0], ids[ids.length - 1], ids.length,
+                    last.getSenderid(), last.getReceiverid(), last.getContent(), encode(messages));
+            jdbcTemplate.update(con -> {
+                var statement = con.prepareStatement("DELETE FROM messages WHERE id = ANY(?)");
+                statement.setArray(1, con.createArrayOf("bigint", ids));
+                return statement;
+            });
+            jdbcTemplate.update(ADVANCE_LIVE_FROM, thread.upTo(), thread.adid(),
+                    thread.userA(), thread.userB(), thread.userB(), thread.userA());
+            return ids.length;
+        });
+        archivedThreads.increment();
+        archivedMessages.increment(count);
+        return count;
+    }
+
+    private byte[] encode(List<Message> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<Message> decode(byte[] payload) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(gzip, MESSAGES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A thread whose messages below upTo are due for the archive.
+     */
+    record ColdThread(String userA, String userB, String adid, long upTo) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.thriftxbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class MessagePartitionMaintainer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MessagePartitionMaintainer.class);
+    private static final Pattern RANGE = Pattern.compile("FROM \\('?(-?\\d+|MINVALUE)'?\\) TO \\('?(-?\\d+|MAXVALUE)'?\\)");
+    private static final String PARTITIONS =
+    "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound, i.inhdetachpending FROM pg_inherits i " +
+    "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'messages'::regclass";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long partitionSize;
+    private final int partitionsAhead;
+    private final boolean dropEmpty;
+    private final boolean maintainOnStartup;
+
+    public MessagePartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      @Value("${thriftx.chat.partition-size:1000000}") long partitionSize,
+                                      @Value("${thriftx.chat.partitions-ahead:2}") int partitionsAhead,
+                                      @Value("${thriftx.chat.partitions.drop-empty:true}") boolean dropEmpty,
+                                      @Value("${thriftx.chat.partitions.maintain-on-startup:true}") boolean maintainOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionSize = partitionSize;
+        this.partitionsAhead = partitionsAhead;
+        this.dropEmpty = dropEmpty;
+        this.maintainOnStartup = maintainOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (maintainOnStartup) {
+            maintain();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${thriftx.chat.partitions.check-ms:3600000}",
+            fixedDelayString = "${thriftx.chat.partitions.check-ms:3600000}")
+    public void maintain() {
+        try {
+            List<Partition> partitions = jdbcTemplate.query(PARTITIONS,
+                    (rs, rowNum) -> Partition.parse(rs.getString("relname"), rs.getString("bound"),
+                            rs.getBoolean("inhdetachpending")));
+            if (partitions.isEmpty()) {
+                log.warn("messages is not partitioned, skipping partition maintenance");
+                return;
+            }
+            Long sequence = jdbcTemplate.queryForObject("SELECT last_value FROM messages_seq", Long.class);
+            long hot = sequence == null ? 0 : sequence;
+            createAhead(partitions, hot);
+            if (dropEmpty) {
+                dropEmptyBelow(partitions, hot);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Message partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    void createAhead(List<Partition> partitions, long hot) {
+        long upper = Long.MIN_VALUE;
+        for (Partition partition : partitions) {
+            upper = Math.max(upper, partition.to());
+        }
+        long target = (hot / partitionSize + 1 + partitionsAhead) * partitionSize;
+        while (upper < target) {
+            long from = Math.max(upper, (hot / partitionSize) * partitionSize);
+            long to = (from / partitionSize + 1) * partitionSize;
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS messages_p" + (from / partitionSize) +
+                    " PARTITION OF messages FOR VALUES FROM (" + from + ") TO (" + to + ")");
+            log.info("Created message partition messages_p{} for ids [{}, {})", from / partitionSize, from, to);
+            upper = to;
+        }
+    }
+
+    /**
+     * Drops partitions below the hot range once MessageArchiveService has moved every row out,
+     * heads included. The detach is CONCURRENTLY so chat reads and writes on messages are not
+     * blocked; one interrupted by a restart is finalized on the next pass.
+     */
+    void dropEmptyBelow(List<Partition> partitions, long hot) {
+        long hotStart = (hot / partitionSize) * partitionSize;
+        for (Partition partition : partitions) {
+            if (partition.to() > hotStart) {
+                continue;
+            }
+            Boolean empty = jdbcTemplate.queryForObject(
+                    "SELECT NOT EXISTS (SELECT 1 FROM " + partition.name() + ")", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                jdbcTemplate.execute("ALTER TABLE messages DETACH PARTITION " + partition.name() +
+                        (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+                jdbcTemplate.execute("DROP TABLE " + partition.name());
+                log.info("Dropped empty message partition {}", partition.name());
+            }
+        }
+    }
+
+    record Partition(String name, long from, long to, boolean detachPending) {
+
+        static Partition parse(String name, String bound, boolean detachPending) {
+            Matcher matcher = RANGE.matcher(bound);
+            if (!matcher.find()) {
+                throw new IllegalStateException("Unexpected partition bound for " + name + ": " + bound);
+            }
+            return new Partition(name, value(matcher.group(1)), value(matcher.group(2)), detachPending);
+        }
+
+        private static long value(String bound) {
+            return switch (bound) {
+                case "MINVALUE" -> Long.MIN_VALUE;
+                case "MAXVALUE" -> Long.MAX_VALUE;
+                default -> Long.parseLong(bound);
+            };
+        }
+    }
+}
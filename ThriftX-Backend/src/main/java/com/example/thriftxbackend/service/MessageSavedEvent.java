@@ -0,0 +1,15 @@
+package com.example.thriftxbackend.service;
+
+import com.example.thriftxbackend.entity.Message;
+
+public class MessageSavedEvent {
+    private final Message message;
+
+    public MessageSavedEvent(Message message) {
+        this.message = message;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+}
@@ -1,80 +1,302 @@
 package com.example.thriftxbackend.service;
 
+import com.example.thriftxbackend.config.ReplicaRoutingDataSource;
+import com.example.thriftxbackend.dto.ConversationDTO;
 import com.example.thriftxbackend.dto.MessageDTO;
+import com.example.thriftxbackend.entity.Conversation;
 import com.example.thriftxbackend.entity.Message;
 import com.example.thriftxbackend.entity.User;
+import com.example.thriftxbackend.metrics.ChatMetrics;
+import com.example.thriftxbackend.metrics.QueryCountingStatementInspector;
+import com.example.thriftxbackend.repository.ConversationRepository;
 import com.example.thriftxbackend.repository.MessageRepository;
 import com.example.thriftxbackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 @Service
 public class MessageService {
 
+    private static final int DEFAULT_PAGE_LIMIT = 50;
+    private static final int MAX_PAGE_LIMIT = 200;
+    private static final Comparator<List<String>> THREAD_ORDER = Comparator.<List<String>, String>comparing(thread -> thread.get(0))
+            .thenComparing(thread -> thread.get(1))
+            .thenComparing(thread -> thread.get(2));
+
     @Autowired
     private MessageRepository messageRepository;
     
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChatMetrics chatMetrics;
+
+    @Value("${thriftx.chat.max-batch-size:200}")
+    private int maxBatchSize = 200;
+
+    @Value("${thriftx.chat.partition-size:1000000}")
+    private long partitionSize = 1_000_000;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+
+    @Autowired
+    private MessageArchiveService messageArchive;
+
+    @Transactional(readOnly = true)
     public List<Message> getChatMessages(String user1, String user2, String adid) {
-        return messageRepository.findAllMessagesBetweenUsers(user1, user2, adid);
-    }    
+        return readAfterWrites(user1, user2, () -> messageRepository.findAllMessagesBetweenUsers(
+                user1, user2, adid, liveRange(user1, user2, adid).fromId(), Long.MAX_VALUE));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Message> getChatMessages(String user1, String user2, String adid,
+                                         Long afterId, Long beforeId, Integer limit) {
+        return getChatMessages(user1, user2, adid, afterId, beforeId, limit, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Message> getChatMessages(String user1, String user2, String adid,
+                                         Long afterId, Long beforeId, Integer limit, boolean includeArchived) {
+        return readAfterWrites(user1, user2, () -> {
+            List<Message> hot = loadChatMessages(user1, user2, adid, afterId, beforeId, limit);
+            return includeArchived && afterId == null ? withArchived(user1, user2, adid, hot, beforeId, limit) : hot;
+        });
+    }
+
+    private List<Message> loadChatMessages(String user1, String user2, String adid,
+                                           Long afterId, Long beforeId, Integer limit) {
+        LiveRange live = liveRange(user1, user2, adid);
+        if (afterId == null && beforeId == null && limit == null) {
+            return messageRepository.findAllMessagesBetweenUsers(user1, user2, adid, live.fromId(), Long.MAX_VALUE);
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_LIMIT : Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        if (afterId != null) {
+            return messageRepository.findMessagesAfter(user1, user2, adid, afterId, PageRequest.ofSize(pageSize));
+        }
+        // Look one partition's worth of ids below the page start first, so the usual page touches
+        // at most two partitions; only a short page goes on to the older ones.
+        long before = beforeId == null ? Long.MAX_VALUE : beforeId;
+        long recentFrom = live.headId() == null ? live.fromId()
+                : Math.max(live.fromId(), Math.min(before - 1, live.headId()) - partitionSize);
+        List<Message> newestFirst = new ArrayList<>(messageRepository.findMessagesBefore(
+                user1, user2, adid, recentFrom, before, PageRequest.ofSize(pageSize)));
+        if (newestFirst.size() < pageSize && recentFrom > live.fromId()) {
+            newestFirst.addAll(messageRepository.findMessagesBefore(user1, user2, adid, live.fromId(), recentFrom,
+                    PageRequest.ofSize(pageSize - newestFirst.size())));
+        }
+        Collections.reverse(newestFirst);
+        return newestFirst;
+    }
+
+    /**
+     * Messages below the thread's live_from_id have been archived, so thread reads start there and
+     * skip the older partitions. The inbox head is only a hint for where the newest page starts.
+     */
+    private LiveRange liveRange(String user1, String user2, String adid) {
+        return conversationRepository.findThreadBounds(user1, user2, adid)
+                .map(bounds -> new LiveRange(
+                        bounds.getLiveFromId() == null ? 0 : bounds.getLiveFromId(), bounds.getLastMessageId()))
+                .orElse(new LiveRange(0, null));
+    }
+
+    private List<Message> withArchived(String user1, String user2, String adid,
+                                       List<Message> hot, Long beforeId, Integer limit) {
+        boolean paged = beforeId != null || limit != null;
+        int pageSize = limit == null ? DEFAULT_PAGE_LIMIT : Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        if (paged && hot.size() >= pageSize) {
+            return hot;
+        }
+        long upTo = hot.isEmpty() ? (beforeId == null ? Long.MAX_VALUE : beforeId) : hot.get(0).getId();
+        List<Message> archived = new ArrayList<>();
+        for (Message message : messageArchive.findArchivedMessages(user1, user2, adid)) {
+            if (message.getId() < upTo) {
+                archived.add(message);
+            }
+        }
+        if (paged && archived.size() > pageSize - hot.size()) {
+            archived = archived.subList(archived.size() - (pageSize - hot.size()), archived.size());
+        }
+        List<Message> result = new ArrayList<>(archived.size() + hot.size());
+        result.addAll(archived);
+        result.addAll(hot);
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public Long getLatestMessageId(String user1, String user2, String adid) {
+        return readAfterWrites(user1, user2, () -> messageRepository.findLatestMessageId(
+                user1, user2, adid, liveRange(user1, user2, adid).fromId()));
+    }
     
+    @Transactional
     public Message saveMessage(MessageDTO dto) {
+        Message saved = messageRepository.save(toMessage(dto));
+        updateInbox(List.of(saved));
+        recordWrites(List.of(saved));
+        eventPublisher.publishEvent(new MessageSavedEvent(saved));
+        chatMetrics.messagesSent(1);
+        return saved;
+    }
+
+    @Transactional
+    public List<Message> saveMessages(List<MessageDTO> dtos) {
+        if (dtos.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxBatchSize + " messages per batch");
+        }
+        List<Message> messages = new ArrayList<>(dtos.size());
+        for (MessageDTO dto : dtos) {
+            messages.add(toMessage(dto));
+        }
+        List<Message> saved = messageRepository.saveAll(messages);
+        updateInbox(saved);
+        recordWrites(saved);
+        for (Message message : saved) {
+            eventPublisher.publishEvent(new MessageSavedEvent(message));
+        }
+        chatMetrics.messagesSent(saved.size());
+        return saved;
+    }
+
+    private static Message toMessage(MessageDTO dto) {
         Message message = new Message();
         message.setSenderid(dto.getSenderid());
         message.setReceiverid(dto.getReceiverid());
         message.setAdid(dto.getAdid());
         message.setContent(dto.getContent());
-        return messageRepository.save(message);
+        message.setCreatedAt(Instant.now());
+        return message;
     }
     
-    public List<Map<String, Object>> getLatestConversations(String buyerId) {
-        List<Message> messages = messageRepository.findLatestMessagesByBuyer(buyerId);
-        List<Map<String, Object>> result = new ArrayList<>();
-        
-        for (Message message : messages) {
-            Map<String, Object> messageData = new HashMap<>();
-            
-            
-            messageData.put("id", message.getId());
-            messageData.put("senderid", message.getSenderid());
-            messageData.put("receiverid", message.getReceiverid());
-            messageData.put("adid", message.getAdid());
-            messageData.put("content", message.getContent());
-            
-            String otherUserId = message.getSenderid().equals(buyerId) 
-                ? message.getReceiverid() 
-                : message.getSenderid();
-            
-            String username = getUsernameById(otherUserId);
-            messageData.put("username", username);
-            messageData.put("otherUserId", otherUserId);
-            
-            result.add(messageData);
-        }
-        
+    @Transactional(readOnly = true)
+    public List<ConversationDTO> getLatestConversations(String buyerId) {
+        return readAfterWrites(buyerId, null, () -> loadInbox(buyerId));
+    }
+
+    private List<ConversationDTO> loadInbox(String buyerId) {
+        long queriesBefore = QueryCountingStatementInspector.currentCount();
+        List<Conversation> conversations = conversationRepository.findInbox(buyerId);
+
+        Set<Long> userIds = new HashSet<>();
+        for (Conversation conversation : conversations) {
+            Long userId = parseUserId(conversation.getCounterpartId());
+            if (userId != null) {
+                userIds.add(userId);
+            }
+        }
+        Map<Long, String> usernames = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (User user : userRepository.findAllById(userIds)) {
+                usernames.put(user.getId(), user.getUsername());
+            }
+        }
+
+        List<Long> archivedHeadIds = new ArrayList<>();
+        for (Conversation conversation : conversations) {
+            if (conversation.getLastMessage() == null) {
+                archivedHeadIds.add(conversation.getLastMessageId());
+            }
+        }
+        Map<Long, Message> archivedHeads = archivedHeadIds.isEmpty() ? Map.of() : messageArchive.findArchivedHeads(archivedHeadIds);
+
+        List<ConversationDTO> result = new ArrayList<>(conversations.size());
+        for (Conversation conversation : conversations) {
+            String otherUserId = conversation.getCounterpartId();
+            String username = usernames.get(parseUserId(otherUserId));
+            Message head = conversation.getLastMessage() != null
+                    ? conversation.getLastMessage() : archivedHeads.get(conversation.getLastMessageId());
+            result.add(new ConversationDTO(conversation, head, username != null ? username : "User " + otherUserId));
+        }
+        chatMetrics.inboxLoaded(QueryCountingStatementInspector.currentCount() - queriesBefore);
         return result;
     }
-    
-    private String getUsernameById(String userId) {
-        try {
-            Long userIdLong = Long.parseLong(userId);
-            Optional<User> user = userRepository.findById(userIdLong);
-            if (user.isPresent()) {
-                return user.get().getUsername(); 
-            } else {
-                return "User " + userId;
+
+    private void recordWrites(List<Message> messages) {
+        Set<String> writers = new HashSet<>();
+        for (Message message : messages) {
+            writers.add(message.getSenderid());
+            writers.add(message.getReceiverid());
+        }
+        readYourWrites.recordWrites(writers);
+    }
+
+    private <T> T readAfterWrites(String user1, String user2, Supplier<T> read) {
+        if (readYourWrites.wroteRecently(user1, user2)) {
+            return ReplicaRoutingDataSource.onPrimary(read);
+        }
+        return read.get();
+    }
+
+    private record LiveRange(long fromId, Long headId) {
+    }
+
+    private void updateInbox(List<Message> messages) {
+        // Sorted by (user_id, counterpart_id, adid) so every writer locks conversation rows in the
+        // same order; A->B and B->A sends in parallel would otherwise deadlock each other.
+        Map<List<String>, long[]> threads = new TreeMap<>(THREAD_ORDER);
+        for (Message message : messages) {
+            String sender = message.getSenderid();
+            String receiver = message.getReceiverid();
+            if (sender == null || receiver == null || message.getAdid() == null) {
+                continue;
+            }
+            touchThread(threads, List.of(sender, receiver, message.getAdid()), message.getId(), 0);
+            if (!sender.equals(receiver)) {
+                touchThread(threads, List.of(receiver, sender, message.getAdid()), message.getId(), 1);
+            }
+        }
+        if (threads.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(threads.size());
+        threads.forEach((thread, head) -> rows.add(new Object[] {thread.get(0), thread.get(1), thread.get(2), head[0], (int) head[1]}));
+        jdbcTemplate.batchUpdate(ConversationRepository.UPSERT_THREAD, rows);
+    }
+
+    private static void touchThread(Map<List<String>, long[]> threads, List<String> thread, long messageId, int unread) {
+        long[] head = threads.computeIfAbsent(thread, key -> new long[2]);
+        head[0] = Math.max(head[0], messageId);
+        head[1] += unread;
+    }
+
+    private static Long parseUserId(String userId) {
+        if (userId == null || userId.isEmpty() || userId.length() > 18) {
+            return null;
+        }
+        for (int i = 0; i < userId.length(); i++) {
+            if (!Character.isDigit(userId.charAt(i))) {
+                return null;
             }
-        } catch (Exception e) {
-            return "User " + userId; 
         }
+        return Long.parseLong(userId);
     }
-}
\ No newline at end of file
+}
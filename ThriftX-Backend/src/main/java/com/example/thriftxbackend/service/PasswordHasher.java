@@ -0,0 +1,93 @@
+package com.example.thriftxbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Service
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor pool;
+    private final Timer hashTimer;
+    private final Counter rejected;
+    private final String unknownUserHash;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${thriftx.auth.hash-threads:0}") int threads,
+                          @Value("${thriftx.auth.hash-queue-capacity:64}") int queueCapacity,
+                          MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.hashTimer = Timer.builder("thriftx.auth.hash").register(meterRegistry);
+        this.rejected = Counter.builder("thriftx.auth.hash.rejected").register(meterRegistry);
+        Gauge.builder("thriftx.auth.hash.queue.size", pool, p -> p.getQueue().size()).register(meterRegistry);
+        this.unknownUserHash = passwordEncoder.encode("unknown-user-" + System.nanoTime());
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Verification> verify(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            if (rawPassword == null || encodedPassword == null || !passwordEncoder.matches(rawPassword, encodedPassword)) {
+                return Verification.REJECTED;
+            }
+            String upgraded = passwordEncoder.upgradeEncoding(encodedPassword) ? passwordEncoder.encode(rawPassword) : null;
+            return new Verification(true, upgraded);
+        });
+    }
+
+    /**
+     * Spends the same bcrypt work as a real verify and always rejects, so a login for a username
+     * that does not exist takes as long as one with a wrong password.
+     */
+    public CompletableFuture<Verification> verifyUnknownUser(String rawPassword) {
+        return submit(() -> {
+            passwordEncoder.matches(rawPassword == null ? "" : rawPassword, unknownUserHash);
+            return Verification.REJECTED;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(work), pool);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many logins in progress, retry shortly");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public record Verification(boolean matched, String upgradedHash) {
+        static final Verification REJECTED = new Verification(false, null);
+    }
+}
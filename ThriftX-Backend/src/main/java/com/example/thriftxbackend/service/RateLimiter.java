@@ -0,0 +1,129 @@
+package com.example.thriftxbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token buckets for each endpoint class. With thriftx.ratelimit.store=redis the
+ * buckets live in Redis and are shared by every pod; when Redis fails the in-process buckets
+ * decide instead, so a Redis outage loosens limits per pod rather than rejecting traffic.
+ */
+@Service
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+    private static final RedisScript<Long> TOKEN_BUCKET =
+            RedisScript.of(new ClassPathResource("ratelimit/token-bucket.lua"), Long.class);
+
+    private final boolean enabled;
+    private final StringRedisTemplate redis;
+    private final TokenBuckets localBuckets;
+    private final Map<Endpoint, Limit> limits = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> allowed = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> limited = new EnumMap<>(Endpoint.class);
+    private final Counter redisErrors;
+
+    public RateLimiter(@Value("${thriftx.ratelimit.enabled:true}") boolean enabled,
+                       @Value("${thriftx.ratelimit.store:local}") String store,
+                       @Value("${thriftx.ratelimit.max-keys:100000}") int maxKeys,
+                       ObjectProvider<StringRedisTemplate> redisTemplate,
+                       Environment environment,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.redis = store.equalsIgnoreCase("redis") ? redisTemplate.getObject() : null;
+        this.localBuckets = new TokenBuckets(maxKeys);
+        String storeTag = redis == null ? "local" : "redis";
+        for (Endpoint endpoint : Endpoint.values()) {
+            String prefix = "thriftx.ratelimit." + endpoint.key + ".";
+            double perSecond = environment.getProperty(prefix + "per-second", Double.class, endpoint.perSecond);
+            int burst = environment.getProperty(prefix + "burst", Integer.class, endpoint.burst);
+            limits.put(endpoint, new Limit((long) (TimeUnit.SECONDS.toNanos(1) / perSecond), Math.max(1, burst)));
+            allowed.put(endpoint, decisions(meterRegistry, endpoint, "allowed", storeTag));
+            limited.put(endpoint, decisions(meterRegistry, endpoint, "limited", storeTag));
+        }
+        this.redisErrors = Counter.builder("thriftx.ratelimit.redis.errors").register(meterRegistry);
+        Gauge.builder("thriftx.ratelimit.local.buckets", localBuckets, TokenBuckets::size).register(meterRegistry);
+    }
+
+    /**
+     * Takes a token for the client, returning 0 or the milliseconds it should wait before retrying.
+     */
+    public long tryAcquire(Endpoint endpoint, String client) {
+        if (!enabled) {
+            return 0;
+        }
+        Limit limit = limits.get(endpoint);
+        String key = endpoint.key + ":" + client;
+        long waitNanos = redis == null ? localBuckets.tryAcquire(key, limit.intervalNanos, limit.burst) : acquireShared(key, limit);
+        if (waitNanos > 0) {
+            limited.get(endpoint).increment();
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+        allowed.get(endpoint).increment();
+        return 0;
+    }
+
+    private long acquireShared(String key, Limit limit) {
+        try {
+            Long waitMicros = redis.execute(TOKEN_BUCKET, List.of("thriftx:ratelimit:" + key),
+                    String.valueOf(Math.max(1, limit.intervalNanos / 1000)), String.valueOf(limit.burst));
+            return waitMicros == null ? 0 : TimeUnit.MICROSECONDS.toNanos(waitMicros);
+        } catch (DataAccessException e) {
+            redisErrors.increment();
+            log.debug("Redis rate limit check failed, using local buckets: {}", e.getMessage());
+            return localBuckets.tryAcquire(key, limit.intervalNanos, limit.burst);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${thriftx.ratelimit.sweep-ms:10000}")
+    public void sweep() {
+        localBuckets.sweep();
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, Endpoint endpoint, String outcome, String store) {
+        return Counter.builder("thriftx.ratelimit.decisions")
+                .tag("endpoint", endpoint.key)
+                .tag("outcome", outcome)
+                .tag("store", store)
+                .register(meterRegistry);
+    }
+
+    public enum Endpoint {
+        SEARCH(20, 40),
+        CHAT_SEND(5, 20),
+        LOGIN(0.5, 10),
+        SIGNUP(0.05, 5),
+        IMAGE_UPLOAD(0.2, 10);
+
+        private final String key;
+        private final double perSecond;
+        private final int burst;
+
+        Endpoint(double perSecond, int burst) {
+            this.key = name().toLowerCase(Locale.ROOT).replace('_', '-');
+            this.perSecond = perSecond;
+            this.burst = burst;
+        }
+    }
+
+    private record Limit(long intervalNanos, int burst) {
+    }
+}
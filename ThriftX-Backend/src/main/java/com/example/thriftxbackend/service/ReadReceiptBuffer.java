@@ -0,0 +1,73 @@
+package com.example.thriftxbackend.service;
+
+import com.example.thriftxbackend.dto.ReadReceiptDTO;
+import com.example.thriftxbackend.repository.ConversationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class ReadReceiptBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReceiptBuffer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentHashMap<ThreadKey, Long> pending = new ConcurrentHashMap<>();
+    private final Counter received;
+    private final Counter written;
+
+    public ReadReceiptBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.received = Counter.builder("thriftx.chat.read.receipts").tag("stage", "received").register(meterRegistry);
+        this.written = Counter.builder("thriftx.chat.read.receipts").tag("stage", "written").register(meterRegistry);
+    }
+
+    public void markRead(ReadReceiptDTO receipt) {
+        if (receipt.getUserId() == null || receipt.getCounterpartId() == null
+                || receipt.getAdid() == null || receipt.getLastReadId() == null) {
+            return;
+        }
+        received.increment();
+        pending.merge(new ThreadKey(receipt.getUserId(), receipt.getCounterpartId(), receipt.getAdid()),
+                receipt.getLastReadId(), Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${thriftx.chat.read-receipts.flush-ms:500}")
+    @PreDestroy
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ThreadKey> keys = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (ThreadKey key : pending.keySet()) {
+            Long upTo = pending.remove(key);
+            if (upTo != null) {
+                keys.add(key);
+                rows.add(new Object[] {upTo, upTo, key.userId(), key.counterpartId(), key.adid()});
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(ConversationRepository.MARK_READ, rows);
+            written.increment(rows.size());
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush {} read receipts, retrying on next flush: {}", rows.size(), e.getMessage());
+            for (int i = 0; i < keys.size(); i++) {
+                pending.merge(keys.get(i), (Long) rows.get(i)[0], Math::max);
+            }
+        }
+    }
+
+    private record ThreadKey(String userId, String counterpartId, String adid) {
+    }
+}
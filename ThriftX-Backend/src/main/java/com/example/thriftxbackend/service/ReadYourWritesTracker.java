@@ -0,0 +1,96 @@
+package com.example.thriftxbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Remembers which users wrote recently so their reads can skip the replicas until replication
+ * has caught up. With thriftx.datasource.read-your-writes.store=redis the marks are shared by
+ * every pod, so a read that lands on another pod still sees the write; if Redis cannot answer,
+ * the read goes to the primary rather than risk a stale replica.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWritesTracker.class);
+    private static final String KEY_PREFIX = "thriftx:ryw:";
+    private static final byte[] MARK = "1".getBytes(StandardCharsets.UTF_8);
+
+    private final Duration window;
+    private final StringRedisTemplate redis;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(@Value("${thriftx.datasource.read-your-writes-ms:5000}") long windowMs,
+                                 @Value("${thriftx.datasource.read-your-writes.store:local}") String store,
+                                 ObjectProvider<StringRedisTemplate> redisTemplate) {
+        this.window = Duration.ofMillis(windowMs);
+        this.redis = store.equalsIgnoreCase("redis") ? redisTemplate.getObject() : null;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void recordWrites(Collection<String> userIds) {
+        List<String> writers = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            if (userId != null) {
+                writers.add(userId);
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        }
+        if (redis == null || writers.isEmpty()) {
+            return;
+        }
+        try {
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                for (String userId : writers) {
+                    connection.stringCommands().set((KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8), MARK,
+                            Expiration.from(window), SetOption.upsert());
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.debug("Could not share read-your-writes marks: {}", e.getMessage());
+        }
+    }
+
+    public boolean wroteRecently(String... userIds) {
+        List<String> keys = new ArrayList<>(userIds.length);
+        for (String userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            if (recentWriters.getIfPresent(userId) != null) {
+                return true;
+            }
+            keys.add(KEY_PREFIX + userId);
+        }
+        if (redis == null || keys.isEmpty()) {
+            return false;
+        }
+        try {
+            Long marked = redis.countExistingKeys(keys);
+            return marked == null || marked > 0;
+        } catch (DataAccessException e) {
+            log.debug("Could not read read-your-writes marks, reading from the primary: {}", e.getMessage());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.thriftxbackend.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process token buckets, one per key. Each bucket is a single AtomicLong holding the time
+ * at which it will be full again (GCRA), so taking a token is one compare-and-set with no
+ * locks. Buckets that have refilled completely carry no state and are swept away. The map never
+ * grows past maxKeys: when it is full of live buckets, new keys are refused until a sweep frees room.
+ */
+public class TokenBuckets {
+
+    private static final long FULL_SWEEP_SPACING_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong nextFullSweep;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    public TokenBuckets(int maxKeys) {
+        this(maxKeys, System::nanoTime);
+    }
+
+    TokenBuckets(int maxKeys, LongSupplier nanoClock) {
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.nextFullSweep = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes one token and returns 0, or returns how many nanoseconds until one is available.
+     * intervalNanos is the refill time of one token; burst is the bucket capacity.
+     */
+    public long tryAcquire(String key, long intervalNanos, int burst) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys && !makeRoom(now)) {
+                return intervalNanos;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        long tolerance = intervalNanos * (burst - 1);
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, now);
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Sweeps at most once per second on behalf of new keys, so a flood of them cannot turn every
+     * request into a scan of the whole map.
+     */
+    private boolean makeRoom(long now) {
+        long due = nextFullSweep.get();
+        if (now - due >= 0 && nextFullSweep.compareAndSet(due, now + FULL_SWEEP_SPACING_NANOS)) {
+            sweep();
+        }
+        return buckets.size() < maxKeys;
+    }
+
+    /**
+     * Drops buckets that are full again; a missing bucket behaves exactly like a full one.
+     */
+    public void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = nanoClock.getAsLong();
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -1,32 +1,102 @@
     package com.example.thriftxbackend.service;
 
 
+    import java.util.concurrent.CompletableFuture;
+    import java.util.concurrent.Executor;
+
+    import org.springframework.beans.factory.annotation.Qualifier;
+    import org.springframework.cache.Cache;
+    import org.springframework.cache.CacheManager;
+    import org.springframework.cache.annotation.Cacheable;
     import org.springframework.stereotype.*;
 
     import com.example.thriftxbackend.dto.UserDetails;
     import com.example.thriftxbackend.repository.UserRepository;
     import com.example.thriftxbackend.entity.User;
+
+    import io.micrometer.core.instrument.Counter;
+    import io.micrometer.core.instrument.MeterRegistry;
     @Service
     public class UserService {
 
         private final UserRepository userRepository;
-        public UserService(UserRepository userRepository) {
+        private final PasswordHasher passwordHasher;
+        private final CacheManager cacheManager;
+        private final Executor databaseExecutor;
+        private final Counter unknownUsernameHits;
+        private final Counter upgradedHashes;
+        public UserService(UserRepository userRepository, PasswordHasher passwordHasher,
+                           CacheManager cacheManager,
+                           @Qualifier("authDatabaseExecutor") Executor databaseExecutor,
+                           MeterRegistry meterRegistry) {
             this.userRepository = userRepository;
+            this.passwordHasher = passwordHasher;
+            this.cacheManager = cacheManager;
+            this.databaseExecutor = databaseExecutor;
+            this.unknownUsernameHits = Counter.builder("thriftx.auth.unknown.username.hits").register(meterRegistry);
+            this.upgradedHashes = Counter.builder("thriftx.auth.hash.upgraded").register(meterRegistry);
+        }
+        public CompletableFuture<Void> saveuser(UserDetails userDetails){
+            return passwordHasher.encode(userDetails.getPassword()).thenAcceptAsync(hash -> {
+                User user  = new User();
+                user.setUsername(userDetails.getUsername());
+                user.setEmail(userDetails.getEmail());
+                user.setPassword(hash);
+                userRepository.save(user);
+                evictUser(userDetails.getUsername());
+            }, databaseExecutor);
+        }
+        public CompletableFuture<User> login(String username, String password) {
+            Cache unknownUsernames = cacheManager.getCache("unknownUsernames");
+            if (unknownUsernames != null && unknownUsernames.get(username) != null) {
+                unknownUsernameHits.increment();
+                return passwordHasher.verifyUnknownUser(password).thenApply(verification -> null);
+            }
+            User user = findCachedUser(username);
+            if (user == null) {
+                if (unknownUsernames != null) {
+                    unknownUsernames.put(username, Boolean.TRUE);
+                }
+                return passwordHasher.verifyUnknownUser(password).thenApply(verification -> null);
+            }
+            return passwordHasher.verify(password, user.getPassword()).thenApplyAsync(verification -> {
+                if (!verification.matched()) {
+                    return null;
+                }
+                if (verification.upgradedHash() != null
+                        && userRepository.upgradePassword(user.getId(), user.getPassword(), verification.upgradedHash()) > 0) {
+                    upgradedHashes.increment();
+                    evictUser(username);
+                }
+                return user;
+            }, databaseExecutor);
         }
-        public void  saveuser(UserDetails userDetails){
-            User user  = new User();
-            user.setUsername(userDetails.getUsername());
-            user.setEmail(userDetails.getEmail());
-            user.setPassword(userDetails.getPassword());
-            userRepository.save(user);
-        } 
         public boolean authenticateUser(String username, String password) {
-            return userRepository.findByUsername(username)
-                    .map(user -> user.getPassword().equals(password))
-                    .orElse(false);
+            return login(username, password).join() != null;
         }
+        @Cacheable(cacheNames = "usersByUsername", key = "#username", unless = "#result == null")
         public User getUserByUsername(String username) {
             return userRepository.findByUsername(username)
-                    .orElse(null);  
+                    .orElse(null);
+        }
+        private User findCachedUser(String username) {
+            Cache usersByUsername = cacheManager.getCache("usersByUsername");
+            User cached = usersByUsername != null ? usersByUsername.get(username, User.class) : null;
+            if (cached != null) {
+                return cached;
+            }
+            User user = userRepository.findByUsername(username).orElse(null);
+            if (user != null && usersByUsername != null) {
+                usersByUsername.put(username, user);
+            }
+            return user;
+        }
+        private void evictUser(String username) {
+            for (String cacheName : new String[] {"usersByUsername", "unknownUsernames"}) {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache != null) {
+                    cache.evict(username);
+                }
+            }
         }
     }
@@ -1,15 +1,44 @@
 package com.example.thriftxbackend.service;
 
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.nio.file.Files;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.thriftxbackend.dto.AdFacetRow;
+import com.example.thriftxbackend.dto.AdFacetsDTO;
+import com.example.thriftxbackend.dto.AdFeedDTO;
+import com.example.thriftxbackend.dto.AdSummaryDTO;
+import com.example.thriftxbackend.dto.AdSummaryRow;
+import com.example.thriftxbackend.dto.FacetCountDTO;
+import com.example.thriftxbackend.dto.PriceBucketDTO;
 import com.example.thriftxbackend.dto.VehicleAdResponseDTO;
 import com.example.thriftxbackend.entity.User;
 import com.example.thriftxbackend.entity.VehicleAd;
@@ -17,21 +46,77 @@ import com.example.thriftxbackend.repository.UserRepository;
 import com.example.thriftxbackend.repository.VehicleAdRepository;
 import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 @Service
 public class VehicleAdService {
+    private static final Logger log = LoggerFactory.getLogger(VehicleAdService.class);
+    private static final int MAX_FACET_VALUES = 50;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Sort NEWEST = Sort.by(Sort.Direction.DESC, "id");
+
     private final VehicleAdRepository vehicleAdRepository;
     private final UserRepository userRepository;
+    private final Gazetteer gazetteer;
+    private final HotListingIndex hotListingIndex;
+    private final boolean fullTextSearch;
 
-    public VehicleAdService(VehicleAdRepository vehicleAdRepository, UserRepository userRepository) {
+    public VehicleAdService(VehicleAdRepository vehicleAdRepository, UserRepository userRepository, Gazetteer gazetteer,
+                            HotListingIndex hotListingIndex,
+                            @Value("${thriftx.search.full-text:true}") boolean fullTextSearch) {
         this.vehicleAdRepository = vehicleAdRepository;
         this.userRepository = userRepository;
+        this.gazetteer = gazetteer;
+        this.hotListingIndex = hotListingIndex;
+        this.fullTextSearch = fullTextSearch;
     }
 
-    public void saveAd(VehicleAdResponseDTO dto) {
+    @Caching(evict = {
+        @CacheEvict(cacheNames = "adPages", allEntries = true),
+        @CacheEvict(cacheNames = "adFacets", allEntries = true),
+        @CacheEvict(cacheNames = "adsByUser", key = "#result.userId")
+    })
+    public VehicleAdResponseDTO saveAd(VehicleAdResponseDTO dto) {
         User user = userRepository.findByUsername(dto.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
-        
+
+        VehicleAd ad = toEntity(dto, user);
+        log.debug("Saving ad {} for user {}", ad.getTitle(), user.getUsername());
+        VehicleAd saved = vehicleAdRepository.save(ad);
+        hotListingIndex.add(saved);
+        return new VehicleAdResponseDTO(saved);
+    }
+
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = "adPages", allEntries = true),
+        @CacheEvict(cacheNames = "adFacets", allEntries = true),
+        @CacheEvict(cacheNames = "adsByUser", allEntries = true)
+    })
+    public int saveAds(List<VehicleAdResponseDTO> dtos) {
+        Set<String> usernames = dtos.stream()
+                .map(VehicleAdResponseDTO::getUsername)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, User> users = userRepository.findByUsernameIn(usernames).stream()
+                .collect(Collectors.toMap(User::getUsername, Function.identity(), (first, second) -> first));
+
+        List<VehicleAd> ads = new ArrayList<>(dtos.size());
+        for (VehicleAdResponseDTO dto : dtos) {
+            User user = users.get(dto.getUsername());
+            if (user == null) {
+                log.warn("Skipping ad {} for unknown user {}", dto.getTitle(), dto.getUsername());
+                continue;
+            }
+            ads.add(toEntity(dto, user));
+        }
+        for (VehicleAd saved : vehicleAdRepository.saveAll(ads)) {
+            hotListingIndex.add(saved);
+        }
+        return ads.size();
+    }
+
+    private VehicleAd toEntity(VehicleAdResponseDTO dto, User user) {
         VehicleAd ad = new VehicleAd();
         ad.setUser(user);
         ad.setUsername(dto.getUsername());
@@ -43,9 +128,23 @@ public class VehicleAdService {
         ad.setMileage(dto.getMileage());
         ad.setDescription(dto.getDescription());
         ad.setImageUrl(dto.getImageUrl());
-        System.out.println("Saving ad: " + ad.getTitle() + " for user: " + user.getUsername()+ "with the image url as "+ad.getImageUrl());
-        vehicleAdRepository.save(ad);
+        if (ImageStorageService.isValidKey(dto.getImageKey())) {
+            ad.setImageKey(dto.getImageKey());
+        }
+        if (GeoArea.isValidCoordinate(dto.getLatitude(), dto.getLongitude())) {
+            ad.setLatitude(dto.getLatitude());
+            ad.setLongitude(dto.getLongitude());
+        } else {
+            double[] place = gazetteer.locate(dto.getLocation());
+            if (place != null) {
+                ad.setLatitude(place[0]);
+                ad.setLongitude(place[1]);
+            }
+        }
+        return ad;
     }
+
+    @Transactional(readOnly = true)
     public Page<VehicleAdResponseDTO> getAllAds(int page, int size) {
         Page<VehicleAd> vehicleAds = vehicleAdRepository.findAll(PageRequest.of(page, size));
         return vehicleAds.map(VehicleAdResponseDTO::new);
@@ -53,28 +152,164 @@ public class VehicleAdService {
 
     }
     
-    public Page<VehicleAdResponseDTO> searchAds(
+    public static boolean isUnfiltered(String search, String category, String location,
+                                       Integer minPrice, Integer maxPrice) {
+        return (search == null || search.trim().isEmpty())
+            && (category == null || category.trim().isEmpty())
+            && (location == null || location.trim().isEmpty())
+            && minPrice == null && maxPrice == null;
+    }
+
+    @Cacheable(cacheNames = "adPages", key = "#page + ':' + #size",
+        condition = "#near == null && T(com.example.thriftxbackend.service.VehicleAdService).isUnfiltered(#search, #category, #location, #minPrice, #maxPrice)")
+    @Transactional(readOnly = true)
+    public Page<AdSummaryDTO> searchAds(
     String search, String category, String location,
-    Integer minPrice, Integer maxPrice, int page, int size) {
+    Integer minPrice, Integer maxPrice, GeoArea near, int page, int size) {
 
     search = (search == null || search.trim().isEmpty()) ? null : search.trim();
     category = (category == null || category.trim().isEmpty()) ? null : category.trim();
     location = (location == null || location.trim().isEmpty()) ? null : location.trim();
 
     boolean noFilters = (search == null && category == null && location == null && minPrice == null && maxPrice == null);
+    String tsQuery = (search != null && fullTextSearch) ? toPrefixTsQuery(search) : null;
 
-    Page<VehicleAd> vehicleAds;
+    if (near == null && search == null && location == null) {
+        HotListingIndex.Page hot = hotListingIndex.query(category, minPrice, maxPrice, page, size);
+        if (hot != null) {
+            return hotPage(hot, category, minPrice, maxPrice, page, size);
+        }
+    }
+
+    Page<AdSummaryRow> vehicleAds;
 
-    if (noFilters) {
-        vehicleAds = vehicleAdRepository.findAll(PageRequest.of(page, size));
+    if (near != null) {
+        vehicleAds = vehicleAdRepository.searchNearby(
+            near.centerLat(), near.centerLon(), near.minLat(), near.minLon(), near.maxLat(), near.maxLon(), near.radiusKm(),
+            tsQuery, tsQuery == null ? search : null, category, location, minPrice, maxPrice, PageRequest.of(page, size)
+        );
+    } else if (noFilters) {
+        vehicleAds = vehicleAdRepository.findSummaries(PageRequest.of(page, size, NEWEST));
+    } else if (tsQuery != null) {
+        vehicleAds = vehicleAdRepository.fullTextSearch(
+            tsQuery, category, location, minPrice, maxPrice, PageRequest.of(page, size)
+        );
     } else {
         vehicleAds = vehicleAdRepository.searchVehicles(
-            search, category, location, minPrice, maxPrice, PageRequest.of(page, size)
+            search, category, location, minPrice, maxPrice, PageRequest.of(page, size, NEWEST)
         );
     }
 
-    return vehicleAds.map(VehicleAdResponseDTO::new);
+    return vehicleAds.map(AdSummaryDTO::new);
 }
+
+private Page<AdSummaryDTO> hotPage(HotListingIndex.Page hot, String category, Integer minPrice, Integer maxPrice,
+                                   int page, int size) {
+    long[] ids = hot.ids();
+    List<AdSummaryDTO> content = new ArrayList<>(ids.length);
+    if (ids.length > 0) {
+        Map<Long, AdSummaryRow> rows = new HashMap<>(ids.length * 2);
+        for (AdSummaryRow row : vehicleAdRepository.findSummariesByIds(LongStream.of(ids).boxed().toList())) {
+            rows.put(row.getId(), row);
+        }
+        for (long id : ids) {
+            AdSummaryRow row = rows.get(id);
+            if (row != null) {
+                content.add(new AdSummaryDTO(row));
+            }
+        }
+    }
+    // An id the index still holds but the database no longer has makes its total stale, so recount.
+    long total = hot.total() != null && content.size() == ids.length
+            ? hot.total()
+            : vehicleAdRepository.countAds(category, null, minPrice, maxPrice);
+    return new PageImpl<>(content, PageRequest.of(page, size, NEWEST), total);
+}
+@Transactional(readOnly = true)
+public VehicleAdResponseDTO getAd(Long id) {
+    return vehicleAdRepository.findById(id)
+            .map(VehicleAdResponseDTO::new)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ad not found"));
+}
+@Transactional(readOnly = true)
+public AdFeedDTO getAdFeed(
+    String search, String category, String location,
+    Integer minPrice, Integer maxPrice, String sort, String cursor, int size) {
+
+    category = (category == null || category.trim().isEmpty()) ? null : category.trim();
+    location = (location == null || location.trim().isEmpty()) ? null : location.trim();
+    search = (search == null || search.trim().isEmpty()) ? null : search.trim();
+    String tsQuery = (search != null && fullTextSearch) ? toPrefixTsQuery(search) : null;
+    String substring = tsQuery == null ? search : null;
+
+    AdCursor.Sort order = AdCursor.parseSort(sort);
+    AdCursor after = (cursor == null || cursor.isBlank()) ? AdCursor.first(order) : AdCursor.decode(cursor, order);
+    PageRequest limit = PageRequest.ofSize(size);
+
+    Slice<AdSummaryRow> vehicleAds = order == AdCursor.Sort.NEWEST
+        ? vehicleAdRepository.seekNewest(
+            after.getId(), tsQuery, substring, category, location, minPrice, maxPrice, limit)
+        : vehicleAdRepository.seekByPrice(
+            (int) after.getKey(), after.getId(), tsQuery, substring, category, location, minPrice, maxPrice, limit);
+
+    List<AdSummaryDTO> content = vehicleAds.getContent().stream().map(AdSummaryDTO::new).collect(Collectors.toList());
+    String nextCursor = vehicleAds.hasNext()
+        ? AdCursor.after(order, content.get(content.size() - 1)).encode()
+        : null;
+    return new AdFeedDTO(content, nextCursor);
+}
+
+@Cacheable(cacheNames = "adFacets", key = "{#search, #category, #location, #minPrice, #maxPrice}")
+@Transactional(readOnly = true)
+public AdFacetsDTO getFacets(String search, String category, String location, Integer minPrice, Integer maxPrice) {
+    category = (category == null || category.trim().isEmpty()) ? null : category.trim();
+    location = (location == null || location.trim().isEmpty()) ? null : location.trim();
+    search = (search == null || search.trim().isEmpty()) ? null : search.trim();
+    String tsQuery = (search != null && fullTextSearch) ? toPrefixTsQuery(search) : null;
+
+    AdFacetsDTO facets = new AdFacetsDTO();
+    for (AdFacetRow row : vehicleAdRepository.facetCounts(tsQuery, tsQuery == null ? search : null, category, location, minPrice, maxPrice)) {
+        long hits = row.getHits();
+        switch (row.getFacet()) {
+            case "total" -> facets.setTotal(hits);
+            case "category" -> {
+                if (row.getValue() != null) {
+                    facets.getCategories().add(new FacetCountDTO(row.getValue(), hits));
+                }
+            }
+            case "location" -> {
+                if (row.getValue() != null) {
+                    facets.getLocations().add(new FacetCountDTO(row.getValue(), hits));
+                }
+            }
+            case "price" -> {
+                if (row.getValue() != null) {
+                    int[] edges = VehicleAdRepository.PRICE_BUCKET_EDGES;
+                    int bucket = Integer.parseInt(row.getValue());
+                    facets.getPriceBuckets().add(new PriceBucketDTO(
+                        bucket == 0 ? null : edges[bucket - 1],
+                        bucket == edges.length ? null : edges[bucket],
+                        hits));
+                }
+            }
+            default -> { }
+        }
+    }
+    facets.setCategories(topValues(facets.getCategories()));
+    facets.setLocations(topValues(facets.getLocations()));
+    facets.getPriceBuckets().sort(Comparator.comparing(b -> b.getMin() == null ? Integer.MIN_VALUE : b.getMin()));
+    return facets;
+}
+
+private static List<FacetCountDTO> topValues(List<FacetCountDTO> values) {
+    return values.stream()
+            .sorted(Comparator.comparingLong(FacetCountDTO::getCount).reversed())
+            .limit(MAX_FACET_VALUES)
+            .collect(Collectors.toList());
+}
+
+@Cacheable(cacheNames = "adsByUser", key = "#user_id")
+@Transactional(readOnly = true)
 public List<VehicleAdResponseDTO> getAdsByUserId(Long user_id) {
     return vehicleAdRepository.findByUserId(user_id)
             .stream()
@@ -82,4 +317,14 @@ public List<VehicleAdResponseDTO> getAdsByUserId(Long user_id) {
             .collect(Collectors.toList());
 }
 
+static String toPrefixTsQuery(String search) {
+    StringJoiner tsQuery = new StringJoiner(" & ");
+    for (String term : NON_WORD.split(search.toLowerCase(Locale.ROOT))) {
+        if (!term.isEmpty()) {
+            tsQuery.add(term + ":*");
+        }
+    }
+    return tsQuery.length() == 0 ? null : tsQuery.toString();
+}
+
 }
@@ -0,0 +1 @@
+ALTER TABLE vehicle_ad ADD COLUMN IF NOT EXISTS image_key VARCHAR(32);
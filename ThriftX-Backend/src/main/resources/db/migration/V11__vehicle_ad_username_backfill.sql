@@ -0,0 +1 @@
+UPDATE vehicle_ad v SET username = u.username FROM users u WHERE v.user_id = u.id AND v.username IS NULL;
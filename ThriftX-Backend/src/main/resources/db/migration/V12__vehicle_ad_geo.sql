@@ -0,0 +1,8 @@
+ALTER TABLE vehicle_ad ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE vehicle_ad ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+ALTER TABLE vehicle_ad
+    ADD COLUMN IF NOT EXISTS geo point
+    GENERATED ALWAYS AS (point(longitude, latitude)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_vehicle_ad_geo ON vehicle_ad USING gist (geo);
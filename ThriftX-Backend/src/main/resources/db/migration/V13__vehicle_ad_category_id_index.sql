@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_vehicle_ad_category_id ON vehicle_ad (category_key, id);
@@ -0,0 +1 @@
+ALTER SEQUENCE vehicle_ad_seq INCREMENT BY 1;
@@ -0,0 +1,9 @@
+ALTER TABLE conversation ADD COLUMN IF NOT EXISTS live_from_id BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE message_archive ADD COLUMN IF NOT EXISTS last_senderid VARCHAR(255);
+ALTER TABLE message_archive ADD COLUMN IF NOT EXISTS last_receiverid VARCHAR(255);
+ALTER TABLE message_archive ADD COLUMN IF NOT EXISTS last_content VARCHAR(255);
+
+CREATE INDEX IF NOT EXISTS idx_message_archive_head ON message_archive (last_message_id);
+
+CREATE INDEX IF NOT EXISTS idx_messages_created_at ON messages USING brin (created_at);
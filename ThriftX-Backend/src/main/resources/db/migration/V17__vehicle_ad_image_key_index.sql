@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_vehicle_ad_image_key ON vehicle_ad (image_key) WHERE image_key IS NOT NULL;
@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS vehicle_ad (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(255),
+    price INTEGER,
+    description VARCHAR(255),
+    location VARCHAR(255),
+    category VARCHAR(255),
+    image_url VARCHAR(255),
+    mileage VARCHAR(255),
+    year VARCHAR(255),
+    username VARCHAR(255),
+    user_id BIGINT NOT NULL REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS messages (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    senderid VARCHAR(255),
+    receiverid VARCHAR(255),
+    adid VARCHAR(255),
+    content VARCHAR(255)
+);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_vehicle_ad_price_id ON vehicle_ad (price, id);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_messages_thread ON messages (adid, senderid, receiverid, id);
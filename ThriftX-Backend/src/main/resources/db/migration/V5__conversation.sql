@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS conversation (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id VARCHAR(255) NOT NULL,
+    counterpart_id VARCHAR(255) NOT NULL,
+    adid VARCHAR(255) NOT NULL,
+    last_message_id BIGINT NOT NULL,
+    unread_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT uk_conversation_thread UNIQUE (user_id, counterpart_id, adid)
+);
+
+CREATE INDEX IF NOT EXISTS idx_conversation_inbox ON conversation (user_id, last_message_id DESC);
@@ -0,0 +1,23 @@
+ALTER TABLE vehicle_ad DROP COLUMN IF EXISTS search_vector;
+
+ALTER TABLE vehicle_ad
+    ALTER COLUMN year TYPE INTEGER
+        USING NULLIF(left(split_part(regexp_replace(year, '[^0-9.]', '', 'g'), '.', 1), 9), '')::integer,
+    ALTER COLUMN mileage TYPE INTEGER
+        USING NULLIF(left(split_part(regexp_replace(mileage, '[^0-9.]', '', 'g'), '.', 1), 9), '')::integer;
+
+ALTER TABLE vehicle_ad
+    ADD COLUMN category_key VARCHAR(255) GENERATED ALWAYS AS (lower(btrim(category))) STORED,
+    ADD COLUMN location_key VARCHAR(255) GENERATED ALWAYS AS (lower(btrim(location))) STORED,
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple'::regconfig, coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple'::regconfig, coalesce(year::text, '')), 'A') ||
+        setweight(to_tsvector('simple'::regconfig, coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_vehicle_ad_search_vector ON vehicle_ad USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_vehicle_ad_category_price ON vehicle_ad (category_key, price, id);
+CREATE INDEX IF NOT EXISTS idx_vehicle_ad_location_trgm ON vehicle_ad USING gin (location_key gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vehicle_ad_user_id ON vehicle_ad (user_id);
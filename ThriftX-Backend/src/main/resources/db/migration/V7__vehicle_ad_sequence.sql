@@ -0,0 +1,6 @@
+CREATE SEQUENCE IF NOT EXISTS vehicle_ad_seq INCREMENT BY 50;
+SELECT setval('vehicle_ad_seq', COALESCE(MAX(id), 0) + 50) FROM vehicle_ad;
+
+ALTER TABLE vehicle_ad ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE vehicle_ad ALTER COLUMN id SET DEFAULT nextval('vehicle_ad_seq');
+ALTER SEQUENCE vehicle_ad_seq OWNED BY vehicle_ad.id;
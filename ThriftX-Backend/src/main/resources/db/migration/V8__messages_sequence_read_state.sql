@@ -0,0 +1,8 @@
+CREATE SEQUENCE IF NOT EXISTS messages_seq INCREMENT BY 50;
+SELECT setval('messages_seq', COALESCE(MAX(id), 0) + 50) FROM messages;
+
+ALTER TABLE messages ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE messages ALTER COLUMN id SET DEFAULT nextval('messages_seq');
+ALTER SEQUENCE messages_seq OWNED BY messages.id;
+
+ALTER TABLE conversation ADD COLUMN IF NOT EXISTS last_read_message_id BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,53 @@
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now();
+
+ALTER TABLE messages RENAME TO messages_legacy;
+ALTER TABLE messages_legacy RENAME CONSTRAINT messages_pkey TO messages_legacy_pkey;
+ALTER INDEX IF EXISTS idx_messages_thread RENAME TO idx_messages_legacy_thread;
+
+CREATE TABLE messages (
+    id BIGINT NOT NULL DEFAULT nextval('messages_seq'),
+    senderid VARCHAR(255),
+    receiverid VARCHAR(255),
+    adid VARCHAR(255),
+    content VARCHAR(255),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT messages_pkey PRIMARY KEY (id)
+) PARTITION BY RANGE (id);
+
+ALTER SEQUENCE messages_seq OWNED BY messages.id;
+
+DO $$
+DECLARE
+    partition_size BIGINT := ${message_partition_size};
+    high_water BIGINT;
+    lower_bound BIGINT;
+    upper_bound BIGINT;
+BEGIN
+    SELECT GREATEST(COALESCE((SELECT MAX(id) FROM messages_legacy), 0), (SELECT last_value FROM messages_seq)) + 1
+    INTO high_water;
+    EXECUTE format('ALTER TABLE messages_legacy ADD CONSTRAINT messages_legacy_range CHECK (id < %s)', high_water);
+    EXECUTE format('ALTER TABLE messages ATTACH PARTITION messages_legacy FOR VALUES FROM (MINVALUE) TO (%s)', high_water);
+    lower_bound := high_water;
+    FOR i IN 0..2 LOOP
+        upper_bound := (lower_bound / partition_size + 1) * partition_size;
+        EXECUTE format('CREATE TABLE IF NOT EXISTS messages_p%s PARTITION OF messages FOR VALUES FROM (%s) TO (%s)',
+            lower_bound / partition_size, lower_bound, upper_bound);
+        lower_bound := upper_bound;
+    END LOOP;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_messages_thread ON messages (adid, senderid, receiverid, id);
+
+CREATE TABLE IF NOT EXISTS message_archive (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    adid VARCHAR(255) NOT NULL,
+    user_a VARCHAR(255) NOT NULL,
+    user_b VARCHAR(255) NOT NULL,
+    first_message_id BIGINT NOT NULL,
+    last_message_id BIGINT NOT NULL,
+    message_count INTEGER NOT NULL,
+    archived_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now(),
+    payload BYTEA NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_message_archive_thread ON message_archive (adid, user_a, user_b, last_message_id);
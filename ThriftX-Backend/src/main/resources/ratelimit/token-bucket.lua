@@ -0,0 +1,16 @@
+-- Same GCRA bucket as TokenBuckets, on the Redis clock so every pod shares one limit.
+-- KEYS[1] bucket key, ARGV[1] token interval in microseconds, ARGV[2] burst.
+-- Returns 0 when a token was taken, otherwise microseconds until the next one.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+local interval = tonumber(ARGV[1])
+local tolerance = interval * (tonumber(ARGV[2]) - 1)
+local full_at = tonumber(redis.call('GET', KEYS[1]) or now)
+local start = math.max(full_at, now)
+local wait = start - now - tolerance
+if wait > 0 then
+  return wait
+end
+local next_full_at = start + interval
+redis.call('SET', KEYS[1], string.format('%d', next_full_at), 'PX', math.ceil((next_full_at - now) / 1000) + 1)
+return 0
@@ -0,0 +1,25 @@
+package com.example.thriftxbackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DbConcurrencyLimitFilterTest {
+
+    private final DbConcurrencyLimitFilter filter = new DbConcurrencyLimitFilter(12, 100, 1, new SimpleMeterRegistry());
+
+    @Test
+    void onlyDatabaseBackedRoutesTakeAPermit() {
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/ads"))).isFalse();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/ads/feed"))).isFalse();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/realtime-messages/batch"))).isFalse();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/login"))).isFalse();
+
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/images"))).isTrue();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/images/abc/thumb.jpg"))).isTrue();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/health"))).isTrue();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.thriftxbackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.example.thriftxbackend.service.RateLimiter.Endpoint;
+
+class RateLimitFilterTest {
+
+    @Test
+    void imageUploadsHaveTheirOwnBudgetButImageReadsAreNotLimited() {
+        assertThat(RateLimitFilter.classify(new MockHttpServletRequest("POST", "/api/images"))).isEqualTo(Endpoint.IMAGE_UPLOAD);
+        assertThat(RateLimitFilter.classify(new MockHttpServletRequest("GET", "/images/0123456789abcdef0123456789abcdef/thumb.jpg"))).isNull();
+        assertThat(RateLimitFilter.classify(new MockHttpServletRequest("POST", "/api/login"))).isEqualTo(Endpoint.LOGIN);
+    }
+}
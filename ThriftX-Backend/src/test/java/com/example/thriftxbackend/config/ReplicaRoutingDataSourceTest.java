@@ -0,0 +1,117 @@
+package com.example.thriftxbackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.thriftxbackend.config.ReplicaRoutingDataSource.Replica;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final DataSource replicaOne = mock(DataSource.class);
+    private final DataSource replicaTwo = mock(DataSource.class);
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+            List.of(new Replica("replica-1", replicaOne), new Replica("replica-2", replicaTwo)), 2000);
+
+    @AfterEach
+    void resetTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void writesAndUnmarkedReadsUsePrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readOnlyTransactionsRoundRobinOverReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(List.of(routing.route().getName(), routing.route().getName(), routing.route().getName()))
+                .containsExactly("replica-1", "replica-2", "replica-1");
+    }
+
+    @Test
+    void onPrimaryOverridesReadOnlyRouting() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(ReplicaRoutingDataSource.onPrimary(routing::route)).isNull();
+        assertThat(routing.route()).isNotNull();
+    }
+
+    @Test
+    void failedReplicaConnectionFallsBackToPrimaryAndIsSkipped() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaOne.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.getReplicas().get(0).isHealthy()).isFalse();
+        assertThat(List.of(routing.route().getName(), routing.route().getName())).containsOnly("replica-2");
+    }
+
+    @Test
+    void lagCheckSkipsLaggingReplicasAndReadsPrimaryWhenNoneAreLeft() throws SQLException {
+        lag(replicaOne, 5000);
+        when(replicaTwo.getConnection()).thenThrow(new SQLException("timeout"));
+
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.getReplicas()).noneMatch(Replica::isHealthy);
+        assertThat(routing.route()).isNull();
+
+        lag(replicaOne, 10);
+        routing.checkReplicas();
+        assertThat(routing.route().getName()).isEqualTo("replica-1");
+    }
+
+    @Test
+    void replicaWithoutAStreamingWalReceiverIsSkippedEvenAtZeroLag() throws SQLException {
+        lag(replicaOne, 0, false);
+        lag(replicaTwo, 10);
+
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.getReplicas().get(0).isHealthy()).isFalse();
+        assertThat(List.of(routing.route().getName(), routing.route().getName())).containsOnly("replica-2");
+
+        lag(replicaOne, 0, true);
+        routing.checkReplicas();
+        assertThat(routing.getReplicas()).allMatch(Replica::isHealthy);
+    }
+
+    private static void lag(DataSource replica, double lagMs) throws SQLException {
+        lag(replica, lagMs, true);
+    }
+
+    private static void lag(DataSource replica, double lagMs, boolean streaming) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet result = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(result);
+        when(result.next()).thenReturn(true);
+        when(result.getBoolean(1)).thenReturn(streaming);
+        when(result.getDouble(2)).thenReturn(lagMs);
+    }
+}
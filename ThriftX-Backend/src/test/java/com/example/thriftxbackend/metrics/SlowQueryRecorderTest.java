@@ -0,0 +1,38 @@
+package com.example.thriftxbackend.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SlowQueryRecorderTest {
+
+    @Test
+    void explainsOnlyPlainReads() {
+        assertThat(SlowQueryRecorder.isExplainable("select v.id from vehicle_ad v where v.price < ?")).isTrue();
+        assertThat(SlowQueryRecorder.isExplainable("  WITH recent AS (SELECT id FROM messages) SELECT * FROM recent;")).isTrue();
+
+        assertThat(SlowQueryRecorder.isExplainable("WITH gone AS (DELETE FROM messages RETURNING id) SELECT count(*) FROM gone")).isFalse();
+        assertThat(SlowQueryRecorder.isExplainable("with t as (select 1) insert into vehicle_ad(id) select * from t")).isFalse();
+        assertThat(SlowQueryRecorder.isExplainable("select nextval('messages_seq')")).isFalse();
+        assertThat(SlowQueryRecorder.isExplainable("select * from users where id = ? for update")).isFalse();
+        assertThat(SlowQueryRecorder.isExplainable("select 1; drop table users")).isFalse();
+        assertThat(SlowQueryRecorder.isExplainable("SELECT pg_try_advisory_xact_lock(77433833903597)")).isFalse();
+        assertThat(SlowQueryRecorder.isExplainable("update vehicle_ad set price = 1")).isFalse();
+    }
+
+    @Test
+    void clearStartsTheRingOver() {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(0, 2, 0, 1000, true, new SimpleMeterRegistry());
+        recorder.record("select 1", new Object[0], 0, 1, null, null);
+        recorder.record("select 2", new Object[0], 0, 1, null, null);
+        recorder.record("select 3", new Object[0], 0, 1, null, null);
+
+        recorder.clear();
+        recorder.record("select 4", new Object[0], 0, 1, null, null);
+
+        assertThat(recorder.snapshot()).extracting(SlowQueryEntry::getSql).containsExactly("select 4");
+        recorder.shutdown();
+    }
+}
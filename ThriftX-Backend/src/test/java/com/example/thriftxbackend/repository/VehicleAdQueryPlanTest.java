@@ -0,0 +1,93 @@
+package com.example.thriftxbackend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class VehicleAdQueryPlanTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static NamedParameterJdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource)
+                .placeholders(Map.of("message_partition_size", "1000000")).load().migrate();
+
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.update("INSERT INTO users (username, email, password) VALUES ('dealer', 'dealer@example.com', 'x')");
+        template.update("INSERT INTO vehicle_ad (title, price, description, location, category, mileage, year, username, user_id) " +
+                "SELECT 'make' || (g % 400) || 'x model', (g * 7919) % 5000000, 'clean car', " +
+                "'City-' || (g % 500), 'Category-' || (g % 200), g % 300000, 1990 + g % 35, 'dealer', " +
+                "(SELECT id FROM users LIMIT 1) FROM generate_series(1, 100000) g");
+        template.execute("ANALYZE vehicle_ad");
+        jdbc = new NamedParameterJdbcTemplate(template);
+    }
+
+    static Stream<Arguments> filterCombinations() {
+        List<Arguments> combinations = new ArrayList<>();
+        for (int mask = 1; mask < 16; mask++) {
+            combinations.add(Arguments.of(
+                    (mask & 1) != 0 ? "make17x:*" : null,
+                    (mask & 2) != 0 ? "Category-42" : null,
+                    (mask & 4) != 0 ? "city-421" : null,
+                    (mask & 8) != 0 ? 100000 : null,
+                    (mask & 8) != 0 ? 110000 : null));
+        }
+        return combinations.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    void searchFiltersAreServedByAnIndex(String tsQuery, String category, String location,
+                                         Integer minPrice, Integer maxPrice) throws Exception {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("category", category, Types.VARCHAR)
+                .addValue("location", location, Types.VARCHAR)
+                .addValue("minPrice", minPrice, Types.INTEGER)
+                .addValue("maxPrice", maxPrice, Types.INTEGER);
+        String sql;
+        if (tsQuery != null) {
+            sql = queryOf("fullTextSearch");
+            params.addValue("tsQuery", tsQuery, Types.VARCHAR);
+        } else {
+            sql = queryOf("searchVehicles");
+            params.addValue("search", null, Types.VARCHAR);
+        }
+
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN " + sql + " LIMIT 10", params, String.class));
+
+        assertThat(plan).doesNotContain("Seq Scan on vehicle_ad");
+    }
+
+    private static String queryOf(String methodName) throws NoSuchMethodException {
+        Method method = VehicleAdRepository.class.getMethod(methodName,
+                String.class, String.class, String.class, Integer.class, Integer.class, Pageable.class);
+        return method.getAnnotation(Query.class).value();
+    }
+}
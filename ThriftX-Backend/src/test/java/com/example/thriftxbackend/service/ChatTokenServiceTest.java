@@ -0,0 +1,40 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+class ChatTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void tokenNamesTheUserItWasIssuedToUntilItExpires() {
+        ChatTokenService issuer = new ChatTokenService("secret", Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = issuer.issue("42");
+
+        assertThat(issuer.verify(token)).isEqualTo("42");
+        ChatTokenService later = new ChatTokenService("secret", Duration.ofHours(1),
+                Clock.fixed(NOW.plus(Duration.ofHours(1)), ZoneOffset.UTC));
+        assertThat(later.verify(token)).isNull();
+    }
+
+    @Test
+    void forgedOrMalformedTokensAreRejected() {
+        ChatTokenService issuer = new ChatTokenService("secret", Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = issuer.issue("42");
+        String signature = token.substring(token.lastIndexOf('.'));
+
+        assertThat(issuer.verify("43" + token.substring(2))).isNull();
+        assertThat(issuer.verify("42." + (NOW.getEpochSecond() + 999_999) + signature)).isNull();
+        assertThat(new ChatTokenService("other", Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC)).verify(token)).isNull();
+        assertThat(issuer.verify("42")).isNull();
+        assertThat(issuer.verify(".x.y")).isNull();
+        assertThat(issuer.verify(null)).isNull();
+    }
+}
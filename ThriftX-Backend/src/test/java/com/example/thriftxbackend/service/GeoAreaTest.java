@@ -0,0 +1,48 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.server.ResponseStatusException;
+
+class GeoAreaTest {
+
+    @Test
+    void radiusBoxWidensLongitudeWithLatitude() {
+        GeoArea kochi = GeoArea.around(9.93, 76.27, 25);
+        GeoArea delhi = GeoArea.around(28.61, 77.21, 25);
+
+        assertThat(kochi.maxLat() - kochi.minLat()).isCloseTo(0.4497, within(0.001));
+        assertThat(kochi.maxLon() - kochi.minLon()).isCloseTo(0.4497 / Math.cos(Math.toRadians(9.93)), within(0.001));
+        assertThat(delhi.maxLon() - delhi.minLon()).isGreaterThan(kochi.maxLon() - kochi.minLon());
+        assertThat(kochi.radiusKm()).isEqualTo(25);
+    }
+
+    @Test
+    void requestParametersMustDescribeOneCompleteArea() {
+        assertThat(GeoArea.fromRequest(null, null, null, null, null, null, null)).isNull();
+        assertThat(GeoArea.fromRequest(null, null, null, 9.0, 75.0, 11.0, 77.0).radiusKm()).isNull();
+        assertThatThrownBy(() -> GeoArea.fromRequest(9.9, null, 25.0, null, null, null, null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> GeoArea.fromRequest(9.9, 76.2, 25.0, 9.0, 75.0, 11.0, 77.0))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> GeoArea.around(9.9, 76.2, 5000)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> GeoArea.box(11.0, 75.0, 9.0, 77.0)).isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void gazetteerMatchesAnyCommaSeparatedPart() throws IOException {
+        Gazetteer gazetteer = new Gazetteer(new ClassPathResource("gazetteer/places.csv"));
+
+        assertThat(gazetteer.locate("Kochi, Kerala")).containsExactly(9.9312, 76.2673);
+        assertThat(gazetteer.locate("Near Lulu Mall,  Edappally ")).containsExactly(10.0261, 76.3083);
+        assertThat(gazetteer.locate("NEW DELHI")).containsExactly(28.6139, 77.2090);
+        assertThat(gazetteer.locate("Atlantis")).isNull();
+        assertThat(gazetteer.locate(null)).isNull();
+    }
+}
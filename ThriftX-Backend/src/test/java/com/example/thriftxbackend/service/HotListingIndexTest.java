@@ -0,0 +1,114 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.thriftxbackend.entity.VehicleAd;
+import com.example.thriftxbackend.repository.VehicleAdRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class HotListingIndexTest {
+
+    @Mock
+    private VehicleAdRepository vehicleAdRepository;
+
+    private HotListingIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        List<Object[]> newest = new ArrayList<>();
+        List<Object[]> byCategory = new ArrayList<>();
+        for (long id = 20; id > 16; id--) {
+            newest.add(new Object[] {id, (int) id * 1000});
+        }
+        for (long id = 20; id > 16; id -= 2) {
+            byCategory.add(new Object[] {"sedan", 2L, id, (int) id * 1000});
+        }
+        byCategory.add(new Object[] {"suv", 3L, 19L, 19000});
+        byCategory.add(new Object[] {"suv", 3L, 17L, 17000});
+        byCategory.add(new Object[] {"suv", 3L, 15L, 15000});
+        when(vehicleAdRepository.findNewestPrices(4)).thenReturn(newest);
+        when(vehicleAdRepository.count()).thenReturn(20L);
+        when(vehicleAdRepository.findNewestPricesByCategory(4)).thenReturn(byCategory);
+        index = new HotListingIndex(vehicleAdRepository, true, true, 4, "local", mock(PlatformTransactionManager.class),
+                mock(ObjectProvider.class), new SimpleMeterRegistry());
+        index.rebuild();
+    }
+
+    @Test
+    void pagesInsideTheWindowAreServedFromMemory() {
+        HotListingIndex.Page first = index.query(null, null, null, 0, 3);
+        assertThat(first.ids()).containsExactly(20, 19, 18);
+        assertThat(first.total()).isEqualTo(20);
+
+        assertThat(index.query(null, null, null, 1, 3)).isNull();
+
+        HotListingIndex.Page sedans = index.query(" Sedan ", null, null, 0, 10);
+        assertThat(sedans.ids()).containsExactly(20, 18);
+        assertThat(sedans.total()).isEqualTo(2);
+
+        HotListingIndex.Page trucks = index.query("Truck", null, null, 0, 10);
+        assertThat(trucks.ids()).isEmpty();
+        assertThat(trucks.total()).isZero();
+    }
+
+    @Test
+    void priceFiltersCountInMemoryOnlyForCompleteWindows() {
+        HotListingIndex.Page cheapSuvs = index.query("suv", null, 17000, 0, 10);
+        assertThat(cheapSuvs.ids()).containsExactly(17, 15);
+        assertThat(cheapSuvs.total()).isEqualTo(2);
+
+        HotListingIndex.Page pricey = index.query(null, 18500, null, 0, 2);
+        assertThat(pricey.ids()).containsExactly(20, 19);
+        assertThat(pricey.total()).isNull();
+
+        assertThat(index.query(null, 18500, null, 0, 3)).isNull();
+    }
+
+    @Test
+    void savedAdsAreInsertedInIdOrderAndPushOutTheOldest() {
+        index.add(ad(21, "Sedan", 5000));
+        index.add(ad(16, "Sedan", 4000));
+
+        assertThat(index.query(null, null, null, 0, 4).ids()).containsExactly(21, 20, 19, 18);
+        HotListingIndex.Page sedans = index.query("sedan", null, null, 0, 10);
+        assertThat(sedans.ids()).containsExactly(21, 20, 18, 16);
+        assertThat(sedans.total()).isEqualTo(4);
+
+        index.add(ad(10, "Sedan", 3000));
+        assertThat(index.query("sedan", null, null, 0, 10)).isNull();
+    }
+
+    @Test
+    void adsSavedOnOtherPodsAreInsertedFromTheBroadcast() {
+        index.received("other-pod,21,5000,sedan");
+        index.received("other-pod,22,6000,");
+        index.received("garbage");
+
+        assertThat(index.query(null, null, null, 0, 2).ids()).containsExactly(22, 21);
+        assertThat(index.query("sedan", null, null, 0, 10).ids()).containsExactly(21, 20, 18);
+    }
+
+    private static VehicleAd ad(long id, String category, int price) {
+        VehicleAd ad = new VehicleAd();
+        ad.setId(id);
+        ad.setCategory(category);
+        ad.setPrice(price);
+        return ad;
+    }
+}
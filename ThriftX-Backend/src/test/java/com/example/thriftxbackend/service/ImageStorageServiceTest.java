@@ -0,0 +1,105 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.thriftxbackend.dto.ImageUploadDTO;
+import com.example.thriftxbackend.repository.VehicleAdRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ImageStorageServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final VehicleAdRepository vehicleAdRepository = mock(VehicleAdRepository.class);
+    private ImageStorageService imageStorageService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageStorageService = new ImageStorageService(dir.toString(), 40_000_000, 1, 10, 24, 500,
+                vehicleAdRepository, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        imageStorageService.shutdown();
+    }
+
+    @Test
+    void uploadIsResizedIntoEveryVariant() throws Exception {
+        ImageUploadDTO upload = imageStorageService.store(png(2000, 1000));
+
+        assertThat(upload.isReady()).isFalse();
+        assertThat(upload.getVariants()).containsEntry("thumb", "/images/" + upload.getImageKey() + "/thumb.jpg");
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path file = imageStorageService.variantPath(upload.getImageKey(), variant);
+            for (int i = 0; i < 100 && !Files.exists(file); i++) {
+                Thread.sleep(50);
+            }
+            BufferedImage image = ImageIO.read(file.toFile());
+            assertThat(image.getWidth()).isEqualTo(variant.maxWidth());
+            assertThat(image.getHeight()).isEqualTo(variant.maxWidth() / 2);
+        }
+        assertThat(imageStorageService.store(png(2000, 1000)).isReady()).isTrue();
+    }
+
+    @Test
+    void nonImageUploadIsRejected() {
+        assertThatThrownBy(() -> imageStorageService.store("not an image".getBytes()))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void sweepDeletesOnlyUnreferencedUploadsOlderThanTheGracePeriod() throws Exception {
+        String referenced = upload(png(20, 10), Duration.ofHours(48));
+        String orphaned = upload(png(30, 10), Duration.ofHours(48));
+        String fresh = upload(png(40, 10), Duration.ofHours(1));
+        String reuploaded = upload(png(50, 10), Duration.ofHours(48));
+        imageStorageService.store(png(50, 10));
+        when(vehicleAdRepository.findReferencedImageKeys(anyCollection())).thenReturn(List.of(referenced));
+
+        imageStorageService.sweepOrphans();
+
+        assertThat(dir.resolve(orphaned)).doesNotExist();
+        assertThat(dir.resolve(referenced)).exists();
+        assertThat(dir.resolve(fresh)).exists();
+        assertThat(dir.resolve(reuploaded)).exists();
+    }
+
+    private String upload(byte[] image, Duration age) throws Exception {
+        String key = imageStorageService.store(image).getImageKey();
+        for (int i = 0; i < 100 && !Files.exists(imageStorageService.variantPath(key, ImageVariant.THUMB)); i++) {
+            Thread.sleep(50);
+        }
+        Files.setLastModifiedTime(imageStorageService.originalPath(key), FileTime.from(Instant.now().minus(age)));
+        return key;
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", bytes);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.thriftxbackend.service.MessagePartitionMaintainer.Partition;
+
+class MessagePartitionMaintainerTest {
+
+    @Test
+    void parsesNumericAndOpenBounds() {
+        assertThat(Partition.parse("messages_p3", "FOR VALUES FROM ('3000000') TO ('4000000')", false))
+                .isEqualTo(new Partition("messages_p3", 3_000_000, 4_000_000, false));
+        assertThat(Partition.parse("messages_legacy", "FOR VALUES FROM (MINVALUE) TO ('1042')", true))
+                .isEqualTo(new Partition("messages_legacy", Long.MIN_VALUE, 1042, true));
+        assertThat(Partition.parse("messages_tail", "FOR VALUES FROM (-5) TO (MAXVALUE)", false))
+                .isEqualTo(new Partition("messages_tail", -5, Long.MAX_VALUE, false));
+    }
+
+    @Test
+    void rejectsBoundsItCannotRead() {
+        assertThatThrownBy(() -> Partition.parse("messages_default", "DEFAULT", false))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.thriftxbackend.entity.Message;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Testcontainers(disabledWithoutDocker = true)
+class MessageRetentionTest {
+
+    private static final long PARTITION_SIZE = 1000;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbc;
+    private MessagePartitionMaintainer maintainer;
+    private MessageArchiveService archive;
+
+    @BeforeEach
+    void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false)
+                .placeholders(Map.of("message_partition_size", String.valueOf(PARTITION_SIZE))).load();
+        flyway.clean();
+        flyway.migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        maintainer = new MessagePartitionMaintainer(jdbc, PARTITION_SIZE, 2, true, false);
+        archive = new MessageArchiveService(jdbc, new DataSourceTransactionManager(dataSource),
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), 180, 500);
+    }
+
+    @Test
+    void createsPartitionsAheadOfTheSequence() {
+        jdbc.execute("SELECT setval('messages_seq', 2500)");
+
+        maintainer.maintain();
+
+        assertThat(partitions()).contains("messages_p3", "messages_p4").doesNotContain("messages_p5");
+    }
+
+    @Test
+    void archivedThreadsLeaveOldPartitionsEmptyEnoughToDrop() {
+        jdbc.update("INSERT INTO users (username, email, password) VALUES ('seller', 'seller@example.com', 'x')");
+        jdbc.update("INSERT INTO vehicle_ad (id, title, user_id) VALUES (9, 'Swift', (SELECT id FROM users))");
+        message(100, "1", "2", "9", "400 days");
+        message(101, "2", "1", "9", "400 days");
+        message(102, "1", "2", "9", "399 days");
+        message(2100, "3", "4", "9", "1 day");
+        message(2200, "5", "6", "77", "1 day");
+        thread("1", "2", "9", 102);
+        thread("3", "4", "9", 2100);
+        thread("5", "6", "77", 2200);
+        jdbc.execute("SELECT setval('messages_seq', 2500)");
+
+        archive.archiveColdThreads();
+        maintainer.maintain();
+
+        assertThat(partitions()).doesNotContain("messages_p0").contains("messages_p2");
+        assertThat(jdbc.queryForList("SELECT id FROM messages ORDER BY id", Long.class)).containsExactly(2100L);
+        assertThat(jdbc.queryForList("SELECT live_from_id FROM conversation WHERE adid = '9' AND user_id IN ('1', '2')",
+                Long.class)).containsOnly(103L);
+        assertThat(archive.findArchivedMessages("2", "1", "9")).extracting(Message::getId).containsExactly(100L, 101L, 102L);
+        assertThat(archive.findArchivedHeads(List.of(102L, 2200L))).containsOnlyKeys(102L, 2200L);
+        assertThat(archive.findArchivedHeads(List.of(102L)).get(102L).getContent()).isEqualTo("message 102");
+    }
+
+    @Test
+    void archiveThreadOnlyTakesMessagesBelowItsBound() {
+        message(100, "1", "2", "9", "400 days");
+        message(101, "2", "1", "9", "1 day");
+        thread("1", "2", "9", 101);
+
+        int archived = archive.archiveThread(new MessageArchiveService.ColdThread("1", "2", "9", 101));
+
+        assertThat(archived).isEqualTo(1);
+        assertThat(jdbc.queryForList("SELECT id FROM messages", Long.class)).containsExactly(101L);
+        assertThat(jdbc.queryForObject("SELECT message_count FROM message_archive", Integer.class)).isEqualTo(1);
+    }
+
+    private void message(long id, String sender, String receiver, String adid, String age) {
+        jdbc.update("INSERT INTO messages (id, senderid, receiverid, adid, content, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, now() - CAST(? AS interval))", id, sender, receiver, adid, "message " + id, age);
+    }
+
+    private void thread(String userA, String userB, String adid, long headId) {
+        jdbc.update("INSERT INTO conversation (user_id, counterpart_id, adid, last_message_id) VALUES (?, ?, ?, ?), (?, ?, ?, ?)",
+                userA, userB, adid, headId, userB, userA, adid, headId);
+    }
+
+    private List<String> partitions() {
+        return jdbc.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'messages'::regclass", String.class);
+    }
+}
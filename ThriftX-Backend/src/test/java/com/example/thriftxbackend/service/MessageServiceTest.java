@@ -0,0 +1,192 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.dto.ConversationDTO;
+import com.example.thriftxbackend.dto.MessageDTO;
+import com.example.thriftxbackend.entity.Conversation;
+import com.example.thriftxbackend.entity.Message;
+import com.example.thriftxbackend.entity.User;
+import com.example.thriftxbackend.metrics.ChatMetrics;
+import com.example.thriftxbackend.repository.ConversationRepository;
+import com.example.thriftxbackend.repository.ConversationRepository.ThreadBounds;
+import com.example.thriftxbackend.repository.MessageRepository;
+import com.example.thriftxbackend.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MessageServiceTest {
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ChatMetrics chatMetrics;
+
+    @Mock
+    private ReadYourWritesTracker readYourWrites;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private MessageArchiveService messageArchive;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private MessageService messageService;
+
+    @Test
+    void latestConversationsResolveUsernamesInOneBatch() {
+        List<Conversation> inbox = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (long i = 1; i <= 200; i++) {
+            inbox.add(conversation(i, String.valueOf(1000 + i)));
+            users.add(user(1000 + i, "seller" + i));
+        }
+        inbox.add(conversation(201, "guest-42"));
+        when(conversationRepository.findInbox("7")).thenReturn(inbox);
+        when(userRepository.findAllById(any())).thenReturn(users);
+
+        List<ConversationDTO> conversations = messageService.getLatestConversations("7");
+
+        assertThat(conversations).hasSize(201);
+        assertThat(conversations.get(0).getUsername()).isEqualTo("seller1");
+        assertThat(conversations.get(0).getOtherUserId()).isEqualTo("1001");
+        assertThat(conversations.get(200).getUsername()).isEqualTo("User guest-42");
+        verify(conversationRepository, times(1)).findInbox("7");
+        verify(userRepository, times(1)).findAllById(any());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void inboxRowsAreUpsertedInKeyOrderWhateverTheSendOrder() {
+        when(messageRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Message> messages = invocation.getArgument(0);
+            for (int i = 0; i < messages.size(); i++) {
+                messages.get(i).setId(100L + i);
+            }
+            return messages;
+        });
+
+        messageService.saveMessages(List.of(dto("7", "3", "9"), dto("3", "7", "9"), dto("7", "3", "2")));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(ConversationRepository.UPSERT_THREAD), rows.capture());
+        assertThat(rows.getValue()).extracting(row -> row[0] + "/" + row[1] + "/" + row[2])
+                .containsExactly("3/7/2", "3/7/9", "7/3/2", "7/3/9");
+    }
+
+    @Test
+    void olderPageIsFilledFromArchiveWhenRequested() {
+        when(messageRepository.findMessagesBefore(any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(message(12), message(11)));
+        when(messageArchive.findArchivedMessages("1", "2", "9"))
+                .thenReturn(List.of(message(3), message(5), message(8), message(11)));
+
+        List<Message> page = messageService.getChatMessages("1", "2", "9", null, 13L, 4, true);
+
+        assertThat(page).extracting(Message::getId).containsExactly(5L, 8L, 11L, 12L);
+    }
+
+    @Test
+    void archiveIsNotReadUnlessRequested() {
+        when(messageRepository.findAllMessagesBetweenUsers("1", "2", "9", 0L, Long.MAX_VALUE)).thenReturn(List.of(message(12)));
+
+        List<Message> thread = messageService.getChatMessages("1", "2", "9", null, null, null, false);
+
+        assertThat(thread).extracting(Message::getId).containsExactly(12L);
+        verify(messageArchive, never()).findArchivedMessages(any(), any(), any());
+    }
+
+    @Test
+    void threadReadsStartAtTheLiveRangeAndTryTheNewestPartitionFirst() {
+        ThreadBounds bounds = mock(ThreadBounds.class);
+        when(bounds.getLiveFromId()).thenReturn(1_000_000L);
+        when(bounds.getLastMessageId()).thenReturn(2_500_000L);
+        when(conversationRepository.findThreadBounds("1", "2", "9")).thenReturn(Optional.of(bounds));
+        when(messageRepository.findMessagesBefore(eq("1"), eq("2"), eq("9"), eq(1_500_000L), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(message(2_500_000)));
+        when(messageRepository.findMessagesBefore(eq("1"), eq("2"), eq("9"), eq(1_000_000L), eq(1_500_000L), any()))
+                .thenReturn(List.of(message(1_200_000)));
+
+        List<Message> page = messageService.getChatMessages("1", "2", "9", null, null, 2, false);
+
+        assertThat(page).extracting(Message::getId).containsExactly(1_200_000L, 2_500_000L);
+    }
+
+    @Test
+    void inboxShowsArchivedHeads() {
+        Conversation archived = conversation(40, "guest-1");
+        when(conversationRepository.findInbox("7")).thenReturn(List.of(archived));
+        Message head = message(40);
+        head.setContent("still interested?");
+        when(messageArchive.findArchivedHeads(List.of(40L))).thenReturn(Map.of(40L, head));
+
+        List<ConversationDTO> inbox = messageService.getLatestConversations("7");
+
+        assertThat(inbox).extracting(ConversationDTO::getContent).containsExactly("still interested?");
+    }
+
+    private static MessageDTO dto(String sender, String receiver, String adid) {
+        MessageDTO dto = new MessageDTO();
+        dto.setSenderid(sender);
+        dto.setReceiverid(receiver);
+        dto.setAdid(adid);
+        dto.setContent("hi");
+        return dto;
+    }
+
+    private static Message message(long id) {
+        Message message = new Message();
+        message.setId(id);
+        return message;
+    }
+
+    private static Conversation conversation(long lastMessageId, String counterpartId) {
+        Conversation conversation = new Conversation();
+        conversation.setUserId("7");
+        conversation.setCounterpartId(counterpartId);
+        conversation.setAdid("1");
+        conversation.setLastMessageId(lastMessageId);
+        conversation.setUnreadCount(0);
+        return conversation;
+    }
+
+    private static User user(long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
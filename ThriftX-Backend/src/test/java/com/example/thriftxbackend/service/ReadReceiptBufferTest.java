@@ -0,0 +1,63 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.thriftxbackend.dto.ReadReceiptDTO;
+import com.example.thriftxbackend.repository.ConversationRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReceiptBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void repeatedReceiptsForAThreadCoalesceIntoOneUpdate() {
+        ReadReceiptBuffer buffer = new ReadReceiptBuffer(jdbcTemplate, new SimpleMeterRegistry());
+        buffer.markRead(receipt("7", "9", "3", 40L));
+        buffer.markRead(receipt("7", "9", "3", 55L));
+        buffer.markRead(receipt("7", "9", "3", 50L));
+        buffer.markRead(receipt("7", "12", "3", 8L));
+
+        buffer.flush();
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(ConversationRepository.MARK_READ), rows.capture());
+        assertThat(rows.getValue()).hasSize(2)
+                .anySatisfy(row -> assertThat(row).containsExactly(55L, 55L, "7", "9", "3"))
+                .anySatisfy(row -> assertThat(row).containsExactly(8L, 8L, "7", "12", "3"));
+    }
+
+    @Test
+    void emptyBufferDoesNotTouchTheDatabase() {
+        new ReadReceiptBuffer(jdbcTemplate, new SimpleMeterRegistry()).flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static ReadReceiptDTO receipt(String userId, String counterpartId, String adid, Long lastReadId) {
+        ReadReceiptDTO receipt = new ReadReceiptDTO();
+        receipt.setUserId(userId);
+        receipt.setCounterpartId(counterpartId);
+        receipt.setAdid(adid);
+        receipt.setLastReadId(lastReadId);
+        return receipt;
+    }
+}
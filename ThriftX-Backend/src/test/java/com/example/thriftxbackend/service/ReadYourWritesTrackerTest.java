@@ -0,0 +1,51 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+class ReadYourWritesTrackerTest {
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+
+    @Test
+    void localMarksCoverEitherParticipant() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000, "local", provider());
+
+        tracker.recordWrites(List.of("1", "2"));
+
+        assertThat(tracker.wroteRecently("2", "3")).isTrue();
+        assertThat(tracker.wroteRecently("3", null)).isFalse();
+    }
+
+    @Test
+    void sharedMarksFromOtherPodsForcePrimary() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000, "redis", provider());
+        when(redis.countExistingKeys(List.of("thriftx:ryw:3", "thriftx:ryw:4"))).thenReturn(1L);
+
+        assertThat(tracker.wroteRecently("3", "4")).isTrue();
+    }
+
+    @Test
+    void redisFailureReadsFromPrimary() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000, "redis", provider());
+        when(redis.countExistingKeys(anyCollection())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(tracker.wroteRecently("5", "6")).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ObjectProvider<StringRedisTemplate> provider() {
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(redis);
+        return provider;
+    }
+}
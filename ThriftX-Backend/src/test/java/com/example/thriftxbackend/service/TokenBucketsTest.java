@@ -0,0 +1,81 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.example.thriftxbackend.service.RateLimiter.Endpoint;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private final TokenBuckets buckets = new TokenBuckets(100, clock::get);
+
+    @Test
+    void burstIsServedThenTokensRefillAtTheRate() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(buckets.tryAcquire("search:ip:a", SECOND / 2, 3)).isZero();
+        }
+        assertThat(buckets.tryAcquire("search:ip:a", SECOND / 2, 3)).isEqualTo(SECOND / 2);
+        assertThat(buckets.tryAcquire("search:ip:b", SECOND / 2, 3)).isZero();
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(buckets.tryAcquire("search:ip:a", SECOND / 2, 3)).isZero();
+        assertThat(buckets.tryAcquire("search:ip:a", SECOND / 2, 3)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void refilledBucketsAreSwept() {
+        buckets.tryAcquire("login:user:a", SECOND, 5);
+        buckets.tryAcquire("login:user:b", SECOND, 5);
+        buckets.tryAcquire("login:user:b", SECOND, 5);
+        assertThat(buckets.size()).isEqualTo(2);
+
+        clock.addAndGet(SECOND);
+        buckets.sweep();
+        assertThat(buckets.size()).isEqualTo(1);
+
+        clock.addAndGet(SECOND);
+        buckets.sweep();
+        assertThat(buckets.size()).isZero();
+    }
+
+    @Test
+    void newKeysAreRefusedWhileTheMapIsFullOfLiveBuckets() {
+        TokenBuckets small = new TokenBuckets(2, clock::get);
+        small.tryAcquire("login:ip-user:a", SECOND, 5);
+        small.tryAcquire("login:ip-user:b", SECOND, 5);
+
+        assertThat(small.tryAcquire("login:ip-user:c", SECOND, 5)).isEqualTo(SECOND);
+        assertThat(small.tryAcquire("login:ip-user:a", SECOND, 5)).isZero();
+        assertThat(small.size()).isEqualTo(2);
+
+        clock.addAndGet(2 * SECOND);
+        assertThat(small.tryAcquire("login:ip-user:c", SECOND, 5)).isZero();
+        assertThat(small.size()).isEqualTo(1);
+    }
+
+    @Test
+    void limiterKeepsEndpointClassesApartAndCanBeDisabled() {
+        RateLimiter limiter = new RateLimiter(true, "local", 100, null, new MockEnvironment()
+                .withProperty("thriftx.ratelimit.signup.per-second", "0.5")
+                .withProperty("thriftx.ratelimit.signup.burst", "1"), new SimpleMeterRegistry());
+
+        assertThat(limiter.tryAcquire(Endpoint.SIGNUP, "ip:a")).isZero();
+        assertThat(limiter.tryAcquire(Endpoint.SIGNUP, "ip:a")).isBetween(1L, 2000L);
+        assertThat(limiter.tryAcquire(Endpoint.LOGIN, "ip:a")).isZero();
+
+        RateLimiter disabled = new RateLimiter(false, "local", 100, null, new MockEnvironment()
+                .withProperty("thriftx.ratelimit.signup.burst", "1"), new SimpleMeterRegistry());
+        assertThat(disabled.tryAcquire(Endpoint.SIGNUP, "ip:a")).isZero();
+        assertThat(disabled.tryAcquire(Endpoint.SIGNUP, "ip:a")).isZero();
+    }
+}
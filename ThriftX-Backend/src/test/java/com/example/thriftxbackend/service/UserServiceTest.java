@@ -0,0 +1,113 @@
+package com.example.thriftxbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.thriftxbackend.config.SecurityConfig;
+import com.example.thriftxbackend.dto.UserDetails;
+import com.example.thriftxbackend.entity.User;
+import com.example.thriftxbackend.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder = new SecurityConfig().passwordEncoder(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService databaseExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "db-test"));
+    private PasswordHasher passwordHasher;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        passwordHasher = new PasswordHasher(passwordEncoder, 1, 8, meterRegistry);
+        userService = new UserService(userRepository, passwordHasher,
+                new ConcurrentMapCacheManager("usersByUsername", "unknownUsernames"), databaseExecutor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+        databaseExecutor.shutdown();
+    }
+
+    @Test
+    void legacyPlaintextPasswordIsUpgradedOnSuccessfulLogin() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("seller");
+        user.setPassword("hunter2");
+        when(userRepository.findByUsername("seller")).thenReturn(Optional.of(user));
+        AtomicReference<String> upgradeThread = new AtomicReference<>();
+        when(userRepository.upgradePassword(eq(7L), eq("hunter2"), anyString())).thenAnswer(invocation -> {
+            upgradeThread.set(Thread.currentThread().getName());
+            return 1;
+        });
+
+        assertThat(userService.login("seller", "wrong").join()).isNull();
+        assertThat(userService.login("seller", "hunter2").join()).isSameAs(user);
+
+        ArgumentCaptor<String> upgraded = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).upgradePassword(eq(7L), eq("hunter2"), upgraded.capture());
+        assertThat(upgraded.getValue()).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.matches("hunter2", upgraded.getValue())).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(upgraded.getValue())).isFalse();
+        assertThat(upgradeThread.get()).isEqualTo("db-test");
+    }
+
+    @Test
+    void unknownUsernameIsAnsweredFromNegativeCacheButStillHashed() {
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(userService.authenticateUser("nobody", "secret")).isFalse();
+        }
+
+        verify(userRepository, times(1)).findByUsername("nobody");
+        verify(userRepository, never()).upgradePassword(eq(0L), anyString(), anyString());
+        assertThat(meterRegistry.get("thriftx.auth.unknown.username.hits").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("thriftx.auth.hash").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void signupEvictsTheNegativeCacheEntry() {
+        User user = new User();
+        user.setId(8L);
+        user.setUsername("newbie");
+        user.setPassword(passwordEncoder.encode("secret"));
+        when(userRepository.findByUsername("newbie")).thenReturn(Optional.empty(), Optional.of(user));
+
+        assertThat(userService.authenticateUser("newbie", "secret")).isFalse();
+        UserDetails details = new UserDetails();
+        details.setUsername("newbie");
+        details.setPassword("secret");
+        userService.saveuser(details).join();
+
+        assertThat(userService.authenticateUser("newbie", "secret")).isTrue();
+        verify(userRepository, times(2)).findByUsername("newbie");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.thriftxbackend.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+
+import com.example.thriftxbackend.repository.UserRepository;
+import com.example.thriftxbackend.repository.VehicleAdRepository;
+
+@ExtendWith(MockitoExtension.class)
+class VehicleAdServiceTest {
+
+    @Mock
+    private VehicleAdRepository vehicleAdRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private Gazetteer gazetteer;
+
+    @Mock
+    private HotListingIndex hotListingIndex;
+
+    @Test
+    void nearbySearchFallsBackToSubstringMatchWhenFullTextIsOff() {
+        VehicleAdService service = new VehicleAdService(vehicleAdRepository, userRepository, gazetteer, hotListingIndex, false);
+        when(vehicleAdRepository.searchNearby(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+                any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+
+        service.searchAds(" toyota ", null, null, null, null, GeoArea.around(9.93, 76.27, 25), 0, 10);
+
+        verify(vehicleAdRepository).searchNearby(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+                eq(25.0), isNull(), eq("toyota"), isNull(), isNull(), isNull(), isNull(), any());
+    }
+
+    @Test
+    void nearbySearchUsesThePrefixQueryWhenFullTextIsOn() {
+        VehicleAdService service = new VehicleAdService(vehicleAdRepository, userRepository, gazetteer, hotListingIndex, true);
+        when(vehicleAdRepository.searchNearby(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+                any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+
+        service.searchAds("toyota", null, null, null, null, GeoArea.around(9.93, 76.27, 25), 0, 10);
+
+        verify(vehicleAdRepository).searchNearby(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+                eq(25.0), eq("toyota:*"), isNull(), isNull(), isNull(), isNull(), isNull(), any());
+    }
+}
@@ -89,7 +89,7 @@ const VehicleCard = ({ vehicle, onPress, animatedStyle }) => {
     <Animated.View style={[styles.card, animatedStyle]}>
       <TouchableOpacity activeOpacity={0.85} onPress={onPress}>
         <View style={styles.content}>
-          <Image source={{ uri: vehicle.imageUrl }} style={styles.image} />
+          <Image source={{ uri: vehicle.thumbnailUrl ?? vehicle.imageUrl }} style={styles.image} />
           <View style={styles.infoContainer}>
             <Text style={styles.title} numberOfLines={1}>
               {vehicle.title || "Unknown Model"}
@@ -102,6 +102,7 @@ const VehicleCard = ({ vehicle, onPress, animatedStyle }) => {
             </Text>
             <Text style={styles.location} numberOfLines={1}>
               {vehicle.location || "Location Unknown"}
+              {vehicle.distanceKm != null ? ` • ${vehicle.distanceKm} km away` : ""}
             </Text>
             <View style={styles.stats}>
               <View style={styles.statItem}>
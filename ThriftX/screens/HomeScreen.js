@@ -70,6 +70,9 @@ const DESIGN_TOKENS = {
   },
 };
 
+const absoluteUrl = (url) =>
+  url?.startsWith("/") ? `https://thrift-x.onrender.com${url}` : url ?? null;
+
 const HomeScreen = ({ navigation }) => {
   const [vehicles, setVehicles] = useState([]);
   const [search, setSearch] = useState("");
@@ -184,7 +187,8 @@ const HomeScreen = ({ navigation }) => {
         id: v.id ?? null,
         category: v.category ?? null,
         description: v.description ?? null,
-        imageUrl: v.imageUrl ?? null,
+        imageUrl: absoluteUrl(v.imageUrl),
+        thumbnailUrl: absoluteUrl(v.thumbnailUrl ?? v.imageUrl),
         location: v.location ?? null,
         mileage: v.mileage ?? null,
         price: v.price ?? null,
@@ -1,4 +1,4 @@
-import React from "react";
+import React, { useEffect, useState } from "react";
 import {
   StyleSheet,
   View,
@@ -67,6 +67,15 @@ const formatPrice = (price) => {
 
 const VehicleDetailScreen = ({ route, navigation }) => {
   const { vehicle } = route.params;
+  const [details, setDetails] = useState(null);
+
+  useEffect(() => {
+    if (!vehicle?.id || vehicle.description) return;
+    fetch(`https://thrift-x.onrender.com/api/ads/${vehicle.id}`)
+      .then((response) => (response.ok ? response.json() : null))
+      .then(setDetails)
+      .catch((error) => console.error("Detail fetch error:", error));
+  }, [vehicle?.id]);
 
   if (!vehicle) {
     return (
@@ -169,7 +178,7 @@ const VehicleDetailScreen = ({ route, navigation }) => {
 
             <Text style={styles.sectionTitle}>Description</Text>
             <Text style={styles.description}>
-              {displayValue(vehicle.description)}
+              {displayValue(details?.description ?? vehicle.description)}
             </Text>
 
             <TouchableOpacity